@@ -0,0 +1,91 @@
+package com.bobocode.se;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * {@link AsciiHistogram} counts characters of a pure ASCII file directly over its raw bytes, so no {@link java.io.Reader}
+ * and no byte-to-char decoding is involved. As soon as a non-ASCII byte is found the counting is abandoned and
+ * {@link Optional#empty()} is returned, so the caller can fall back to the regular UTF-8 decoding.
+ * <p>
+ * The counting loop is unrolled over four separate tables. It breaks the store-to-load dependency between neighbouring
+ * equal bytes, and the branch-free ASCII check is a simple OR-reduction that JIT is able to vectorize.
+ */
+class AsciiHistogram {
+    static final int ASCII_SIZE = 128;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private AsciiHistogram() {
+    }
+
+    /**
+     * Counts the bytes of the file.
+     *
+     * @param filePath a file to scan
+     * @return an array of 128 counters indexed by character, or empty optional if the file is not pure ASCII
+     * @throws IOException if the file cannot be read
+     */
+    static Optional<long[]> count(Path filePath) throws IOException {
+        int[][] tables = new int[4][ASCII_SIZE];
+        long[] counts = new long[ASCII_SIZE];
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            int read;
+            while ((read = readFully(channel, buffer)) > 0) {
+                if (!isAscii(bytes, read)) {
+                    return Optional.empty();
+                }
+                countChunk(bytes, read, tables);
+                flush(tables, counts); // int tables cannot overflow within a single 64K chunk
+                buffer.clear();
+            }
+        }
+        return Optional.of(counts);
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // keep reading until the buffer is full or the end of file is reached
+        }
+        return buffer.position();
+    }
+
+    static boolean isAscii(byte[] bytes, int length) {
+        int acc = 0;
+        for (int i = 0; i < length; i++) {
+            acc |= bytes[i];
+        }
+        return acc >= 0;
+    }
+
+    private static void countChunk(byte[] bytes, int length, int[][] tables) {
+        int[] t0 = tables[0];
+        int[] t1 = tables[1];
+        int[] t2 = tables[2];
+        int[] t3 = tables[3];
+        int i = 0;
+        for (int bound = length - 3; i < bound; i += 4) {
+            t0[bytes[i]]++;
+            t1[bytes[i + 1]]++;
+            t2[bytes[i + 2]]++;
+            t3[bytes[i + 3]]++;
+        }
+        for (; i < length; i++) {
+            t0[bytes[i]]++;
+        }
+    }
+
+    private static void flush(int[][] tables, long[] counts) {
+        for (int[] table : tables) {
+            for (int c = 0; c < ASCII_SIZE; c++) {
+                counts[c] += table[c];
+                table[c] = 0;
+            }
+        }
+    }
+}
@@ -1,12 +1,47 @@
 package com.bobocode.se;
 
-import com.bobocode.util.ExerciseNotCompletedException;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * {@link FileStats} provides an API that allow to get character statistic based on text file. All whitespace characters
  * are ignored.
+ * <p>
+ * The computed statistic can be stored into a binary sidecar file using {@link FileStats#writeIndex()}. When a valid
+ * sidecar exists, {@link FileStats#from(String)} loads the statistic from it instead of scanning the whole file.
  */
 public class FileStats {
+    private final Path filePath;
+    private final Map<Character, Long> characterCountMap;
+    private final char mostPopularCharacter;
+
+    private FileStats(Path filePath, Map<Character, Long> characterCountMap) {
+        this.filePath = filePath;
+        this.characterCountMap = characterCountMap;
+        this.mostPopularCharacter = findMostPopularCharacter(characterCountMap);
+    }
+
     /**
      * Creates a new immutable {@link FileStats} objects using data from text file received as a parameter.
      *
@@ -14,7 +49,131 @@ public class FileStats {
      * @return new FileStats object created from text file
      */
     public static FileStats from(String fileName) {
-        throw new ExerciseNotCompletedException(); //todo
+        Path filePath = getFilePath(fileName);
+        return new FileStats(filePath, loadOrComputeCharacterMap(filePath));
+    }
+
+    /**
+     * Creates a new immutable {@link FileStats} object that aggregates statistic of all files in the directory tree
+     * matching the glob. A glob is matched against both a file name and a path relative to the directory, so
+     * "*.txt" and "docs/**" both work as expected. Files are scanned in parallel using a number of threads equal to
+     * the number of available processors.
+     *
+     * @param dir  a root directory to scan
+     * @param glob a glob pattern of files to include
+     * @return new FileStats object that holds merged statistic of all matching files
+     */
+    public static FileStats aggregate(Path dir, String glob) {
+        return aggregate(dir, glob, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new immutable {@link FileStats} object that aggregates statistic of all files in the directory tree
+     * matching the glob. At most {@code parallelism} files are read at the same time.
+     *
+     * @param dir         a root directory to scan
+     * @param glob        a glob pattern of files to include
+     * @param parallelism max number of files that are read concurrently
+     * @return new FileStats object that holds merged statistic of all matching files
+     */
+    public static FileStats aggregate(Path dir, String glob, int parallelism) {
+        Objects.requireNonNull(dir);
+        Objects.requireNonNull(glob);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism should be positive");
+        }
+        List<Path> files = findFiles(dir, glob);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(files.size(), 1)));
+        try {
+            List<Future<Map<Character, Long>>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(executor.submit(() -> loadOrComputeCharacterMap(file)));
+            }
+            Map<Character, Long> characterCountMap = new HashMap<>();
+            for (Future<Map<Character, Long>> future : futures) {
+                future.get().forEach((character, count) -> characterCountMap.merge(character, count, Long::sum));
+            }
+            return new FileStats(null, characterCountMap);
+        } catch (ExecutionException e) {
+            throw new FileStatsException("Cannot read the file", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FileStatsException("Directory scan was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<Path> findFiles(Path dir, String glob) {
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().endsWith(FileStatsIndex.SIDECAR_EXTENSION))
+                    .filter(path -> matcher.matches(path.getFileName()) || matcher.matches(dir.relativize(path)))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new FileStatsException("Cannot read the directory", e);
+        }
+    }
+
+    private static Map<Character, Long> loadOrComputeCharacterMap(Path filePath) {
+        return FileStatsIndex.load(filePath).orElseGet(() -> computeCharacterMap(filePath));
+    }
+
+    private static Path getFilePath(String fileName) {
+        Objects.requireNonNull(fileName);
+        URL fileUrl = getFileUrl(fileName);
+        try {
+            return Paths.get(fileUrl.toURI());
+        } catch (URISyntaxException e) {
+            throw new FileStatsException("Wrong file path", e);
+        }
+    }
+
+    private static URL getFileUrl(String fileName) {
+        URL fileUrl = FileStats.class.getClassLoader().getResource(fileName);
+        if (fileUrl == null) {
+            throw new FileStatsException("Wrong file path");
+        }
+        return fileUrl;
+    }
+
+    static Map<Character, Long> computeCharacterMap(Path filePath) {
+        try {
+            return AsciiHistogram.count(filePath)
+                    .map(FileStats::toCharacterMap)
+                    .orElseGet(() -> decodeCharacterMap(filePath));
+        } catch (IOException e) {
+            throw new FileStatsException("Cannot read the file", e);
+        }
+    }
+
+    private static Map<Character, Long> toCharacterMap(long[] asciiCounts) {
+        Map<Character, Long> characterCountMap = new HashMap<>();
+        for (char c = 0; c < asciiCounts.length; c++) {
+            if (asciiCounts[c] > 0 && !Character.isWhitespace(c)) {
+                characterCountMap.put(c, asciiCounts[c]);
+            }
+        }
+        return characterCountMap;
+    }
+
+    static Map<Character, Long> decodeCharacterMap(Path filePath) {
+        try (Stream<String> lines = Files.lines(filePath)) {
+            return lines.flatMapToInt(String::chars)
+                    .filter(c -> !Character.isWhitespace(c))
+                    .mapToObj(c -> (char) c)
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        } catch (IOException e) {
+            throw new FileStatsException("Cannot read the file", e);
+        }
+    }
+
+    private static char findMostPopularCharacter(Map<Character, Long> characterCountMap) {
+        return characterCountMap.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(Character.MIN_VALUE);
     }
 
     /**
@@ -24,7 +183,7 @@ public class FileStats {
      * @return a number that shows how many times this character appeared in a text file
      */
     public int getCharCount(char character) {
-        throw new ExerciseNotCompletedException(); //todo
+        return characterCountMap.getOrDefault(character, 0L).intValue();
     }
 
     /**
@@ -33,7 +192,7 @@ public class FileStats {
      * @return the most frequently appeared character
      */
     public char getMostPopularCharacter() {
-        throw new ExerciseNotCompletedException(); //todo
+        return mostPopularCharacter;
     }
 
     /**
@@ -43,6 +202,48 @@ public class FileStats {
      * @return {@code true} if this character has appeared in the text, and {@code false} otherwise
      */
     public boolean containsCharacter(char character) {
-        throw new ExerciseNotCompletedException(); //todo
+        return characterCountMap.containsKey(character);
+    }
+
+    /**
+     * Returns up to {@code k} characters that appeared most often in the text, ordered by number of occurrences
+     * starting from the most popular one. Characters with equal counts are ordered by their values.
+     *
+     * @param k max number of characters to return
+     * @return the most frequently appeared characters
+     */
+    public List<Character> topK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("K should not be negative");
+        }
+        Comparator<Map.Entry<Character, Long>> byPopularity = Map.Entry.<Character, Long>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<Character, Long>> heap = new PriorityQueue<>(Math.max(k, 1), byPopularity);
+        for (Map.Entry<Character, Long> entry : characterCountMap.entrySet()) {
+            if (heap.size() < k) {
+                heap.offer(entry);
+            } else if (k > 0 && byPopularity.compare(entry, heap.peek()) > 0) {
+                heap.poll();
+                heap.offer(entry);
+            }
+        }
+        LinkedList<Character> topCharacters = new LinkedList<>();
+        while (!heap.isEmpty()) {
+            topCharacters.addFirst(heap.poll().getKey());
+        }
+        return topCharacters;
+    }
+
+    /**
+     * Stores the character statistic into a binary sidecar file next to the source file. The sidecar is bound to the
+     * source file path, size, modification time and file key, so it is ignored once the file changes.
+     *
+     * @return a path of the written sidecar file
+     */
+    public Path writeIndex() {
+        if (filePath == null) {
+            throw new FileStatsException("Aggregated statistic cannot be stored into an index file");
+        }
+        return FileStatsIndex.write(filePath, characterCountMap);
     }
 }
@@ -0,0 +1,137 @@
+package com.bobocode.se;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FileStatsIndex} reads and writes a binary sidecar file that stores a character statistic computed by
+ * {@link FileStats}. The sidecar has the following layout:
+ * <pre>
+ * magic(int) version(int) pathLength(int) path(UTF-8 bytes) size(long) mtimeNanos(long)
+ * fileKeyLength(int) fileKey(UTF-8 bytes) entryCount(int) [character(char) count(long)] * entryCount
+ * </pre>
+ * A sidecar is only considered valid if path, size, modification time and file key (when the file system provides
+ * one) of the source file all match. The source file content is never read, so loading a valid sidecar costs a
+ * single {@code stat} call. The sidecar is written into a temporary file and then atomically moved, so a torn sidecar
+ * is never seen.
+ */
+class FileStatsIndex {
+    static final String SIDECAR_EXTENSION = ".stats";
+    private static final int MAGIC = 0x46535458; // "FSTX"
+    private static final int VERSION = 2;
+
+    private FileStatsIndex() {
+    }
+
+    static Path sidecarPath(Path filePath) {
+        return filePath.resolveSibling(filePath.getFileName() + SIDECAR_EXTENSION);
+    }
+
+    static Optional<Map<Character, Long>> load(Path filePath) {
+        Path sidecar = sidecarPath(filePath);
+        if (!Files.isRegularFile(sidecar)) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(sidecar, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return readIfValid(buffer, filePath);
+        } catch (IOException | RuntimeException e) {
+            return Optional.empty(); // a broken sidecar is never fatal, the file is just scanned again
+        }
+    }
+
+    private static Optional<Map<Character, Long>> readIfValid(ByteBuffer buffer, Path filePath) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return Optional.empty();
+        }
+        byte[] pathBytes = new byte[buffer.getInt()];
+        buffer.get(pathBytes);
+        String path = new String(pathBytes, StandardCharsets.UTF_8);
+        long size = buffer.getLong();
+        long lastModified = buffer.getLong();
+        byte[] fileKeyBytes = new byte[buffer.getInt()];
+        buffer.get(fileKeyBytes);
+        String fileKey = new String(fileKeyBytes, StandardCharsets.UTF_8);
+        BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+        if (!path.equals(keyOf(filePath))
+                || size != attributes.size()
+                || lastModified != attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)
+                || !fileKey.equals(fileKeyOf(attributes))) {
+            return Optional.empty();
+        }
+        int entryCount = buffer.getInt();
+        Map<Character, Long> characterCountMap = new HashMap<>(entryCount * 4 / 3 + 1);
+        for (int i = 0; i < entryCount; i++) {
+            characterCountMap.put(buffer.getChar(), buffer.getLong());
+        }
+        return Optional.of(characterCountMap);
+    }
+
+    static Path write(Path filePath, Map<Character, Long> characterCountMap) {
+        Path sidecar = sidecarPath(filePath);
+        Path tempFile = null;
+        try {
+            // the temporary file ends with the sidecar extension too, so a leftover one is never aggregated
+            tempFile = Files.createTempFile(sidecar.toAbsolutePath().getParent(), sidecar.getFileName() + ".",
+                    SIDECAR_EXTENSION);
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+                byte[] pathBytes = keyOf(filePath).getBytes(StandardCharsets.UTF_8);
+                byte[] fileKeyBytes = fileKeyOf(attributes).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(pathBytes.length);
+                out.write(pathBytes);
+                out.writeLong(attributes.size());
+                out.writeLong(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS));
+                out.writeInt(fileKeyBytes.length);
+                out.write(fileKeyBytes);
+                out.writeInt(characterCountMap.size());
+                for (Map.Entry<Character, Long> entry : characterCountMap.entrySet()) {
+                    out.writeChar(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+            }
+            Files.move(tempFile, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new FileStatsException("Cannot write the index file", e);
+        }
+        return sidecar;
+    }
+
+    private static String keyOf(Path filePath) {
+        return filePath.toAbsolutePath().normalize().toString();
+    }
+
+    private static String fileKeyOf(BasicFileAttributes attributes) {
+        Object fileKey = attributes.fileKey();
+        return fileKey == null ? "" : fileKey.toString();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // nothing to do, a leftover temporary file is overwritten next time
+        }
+    }
+}
@@ -5,6 +5,15 @@ import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.*;
 
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
@@ -66,4 +75,81 @@ public class FileStatsTest {
         assertThat(springArticleContainsExistingCharacter).isTrue();
         assertThat(springArticleContainsWhitespace).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    @Order(6)
+    void writeIndexAndLoadFromIt() throws IOException {
+        FileStats scannedFileStats = FileStats.from("sotl.txt");
+        Path sidecar = scannedFileStats.writeIndex();
+
+        try {
+            FileStats indexedFileStats = FileStats.from("sotl.txt");
+
+            assertThat(sidecar).exists();
+            assertThat(indexedFileStats.getCharCount('a')).isEqualTo(2345);
+            assertThat(indexedFileStats.getMostPopularCharacter()).isEqualTo('e');
+            assertThat(indexedFileStats.containsCharacter(' ')).isFalse();
+        } finally {
+            Files.deleteIfExists(sidecar);
+        }
+    }
+
+    @Test
+    @Order(7)
+    void loadFromIndexWithoutScanning() throws IOException, URISyntaxException {
+        Path filePath = Paths.get(getClass().getClassLoader().getResource("sotl.txt").toURI());
+        FileTime lastModified = Files.getLastModifiedTime(filePath);
+        Path sidecar = FileStatsIndex.write(filePath, Map.of('a', 42L)); // a stub that a scan would never produce
+
+        try {
+            assertThat(FileStats.from("sotl.txt").getCharCount('a')).isEqualTo(42);
+
+            Files.setLastModifiedTime(filePath, FileTime.fromMillis(lastModified.toMillis() + 1000));
+            assertThat(FileStats.from("sotl.txt").getCharCount('a')).isEqualTo(2345);
+        } finally {
+            Files.setLastModifiedTime(filePath, lastModified);
+            Files.deleteIfExists(sidecar);
+        }
+    }
+
+    @Test
+    @Order(8)
+    void topK() {
+        FileStats lambdaArticleFileStats = FileStats.from("sotl.txt");
+
+        List<Character> topCharacters = lambdaArticleFileStats.topK(3);
+
+        assertThat(topCharacters).hasSize(3);
+        assertThat(topCharacters.get(0)).isEqualTo('e');
+        assertThat(lambdaArticleFileStats.getCharCount(topCharacters.get(1)))
+                .isGreaterThanOrEqualTo(lambdaArticleFileStats.getCharCount(topCharacters.get(2)));
+        assertThat(lambdaArticleFileStats.topK(0)).isEmpty();
+    }
+
+    @Test
+    @Order(9)
+    void aggregate() throws URISyntaxException {
+        Path resourcesDir = Paths.get(getClass().getClassLoader().getResource("sotl.txt").toURI()).getParent();
+        FileStats lambdaArticleFileStats = FileStats.from("sotl.txt");
+        FileStats springCloudArticleFileStats = FileStats.from("scosb.txt");
+
+        FileStats aggregatedFileStats = FileStats.aggregate(resourcesDir, "*.txt", 2);
+
+        assertThat(aggregatedFileStats.getCharCount('a')).isEqualTo(
+                lambdaArticleFileStats.getCharCount('a') + springCloudArticleFileStats.getCharCount('a'));
+        assertThat(aggregatedFileStats.containsCharacter(' ')).isFalse();
+        assertThatThrownBy(aggregatedFileStats::writeIndex).isInstanceOf(FileStatsException.class);
+    }
+
+    @Test
+    @Order(10)
+    void byteCountingMatchesDecoding() throws IOException, URISyntaxException {
+        Path asciiFile = Paths.get(getClass().getClassLoader().getResource("sotl.txt").toURI());
+        Path nonAsciiFile = Paths.get(getClass().getClassLoader().getResource("scosb.txt").toURI());
+
+        assertThat(AsciiHistogram.count(asciiFile)).isPresent();
+        assertThat(FileStats.computeCharacterMap(asciiFile)).isEqualTo(FileStats.decodeCharacterMap(asciiFile));
+        assertThat(AsciiHistogram.count(nonAsciiFile)).isEmpty();
+        assertThat(FileStats.computeCharacterMap(nonAsciiFile)).isEqualTo(FileStats.decodeCharacterMap(nonAsciiFile));
+    }
+}
@@ -0,0 +1,140 @@
+package com.bobocode.se;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link CorpusExtractor} applies a set of {@link CrazyPattern}s to a corpus of documents in parallel. A stream of
+ * documents is split by its {@link java.util.Spliterator} and processed by fork/join tasks. Each worker thread owns its
+ * own {@link Matcher} instances, which are reset for every document, so matchers are never shared between threads and
+ * never allocated per document.
+ * <p>
+ * Results can be collected in the encounter order of documents, or unordered, which lets the stream skip the work of
+ * keeping the order.
+ */
+public class CorpusExtractor {
+    private final CrazyPattern[] patterns;
+    private final int parallelism;
+    private final ThreadLocal<ThreadMatchers> matchers;
+
+    /**
+     * Creates an extractor that runs in the common {@link ForkJoinPool}
+     *
+     * @param first a pattern to apply
+     * @param rest  other patterns to apply
+     */
+    public CorpusExtractor(CrazyPattern first, CrazyPattern... rest) {
+        this(0, first, rest);
+    }
+
+    /**
+     * Creates an extractor that runs in a dedicated {@link ForkJoinPool} of the given parallelism
+     *
+     * @param parallelism a number of worker threads, or {@code 0} to use the common pool
+     * @param first       a pattern to apply
+     * @param rest        other patterns to apply
+     */
+    public CorpusExtractor(int parallelism, CrazyPattern first, CrazyPattern... rest) {
+        if (parallelism < 0) {
+            throw new IllegalArgumentException("Parallelism should not be negative");
+        }
+        this.patterns = Stream.concat(Stream.of(first), Stream.of(rest)).distinct().toArray(CrazyPattern[]::new);
+        this.parallelism = parallelism;
+        this.matchers = ThreadLocal.withInitial(() -> new ThreadMatchers(patterns));
+    }
+
+    /**
+     * Extracts matches from every document and keeps the order of documents
+     *
+     * @param documents a stream of documents
+     * @return a list with matches of each document, in the same order as documents
+     */
+    public List<Map<CrazyPattern, List<String>>> extractOrdered(Stream<? extends CharSequence> documents) {
+        Objects.requireNonNull(documents);
+        return run(() -> documents.parallel()
+                .map(this::extract)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Extracts matches from every document and merges them by pattern. The order of matches is not specified.
+     *
+     * @param documents a stream of documents
+     * @return all matches of the corpus grouped by pattern
+     */
+    public Map<CrazyPattern, List<String>> extractUnordered(Stream<? extends CharSequence> documents) {
+        Objects.requireNonNull(documents);
+        return run(() -> documents.parallel()
+                .unordered()
+                .collect(this::emptyResult, this::extractInto, this::merge));
+    }
+
+    private <T> T run(Supplier<T> task) {
+        if (parallelism == 0) {
+            return task.get();
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(task::get).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Corpus extraction was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Corpus extraction failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private Map<CrazyPattern, List<String>> extract(CharSequence document) {
+        Map<CrazyPattern, List<String>> result = emptyResult();
+        extractInto(result, document);
+        return result;
+    }
+
+    private void extractInto(Map<CrazyPattern, List<String>> result, CharSequence document) {
+        ThreadMatchers threadMatchers = matchers.get();
+        for (int i = 0; i < patterns.length; i++) {
+            List<String> found = result.get(patterns[i]);
+            Matcher matcher = threadMatchers.matchers[i].reset(document);
+            while (matcher.find()) {
+                found.add(matcher.group());
+            }
+            matcher.reset(""); // do not keep a reference to the document
+        }
+    }
+
+    private Map<CrazyPattern, List<String>> emptyResult() {
+        Map<CrazyPattern, List<String>> result = new EnumMap<>(CrazyPattern.class);
+        for (CrazyPattern pattern : patterns) {
+            result.put(pattern, new ArrayList<>());
+        }
+        return result;
+    }
+
+    private void merge(Map<CrazyPattern, List<String>> target, Map<CrazyPattern, List<String>> source) {
+        source.forEach((pattern, found) -> target.get(pattern).addAll(found));
+    }
+
+    private static class ThreadMatchers {
+        private final Matcher[] matchers;
+
+        ThreadMatchers(CrazyPattern[] patterns) {
+            this.matchers = Stream.of(patterns)
+                    .map(pattern -> pattern.pattern().matcher(""))
+                    .toArray(Matcher[]::new);
+        }
+    }
+}
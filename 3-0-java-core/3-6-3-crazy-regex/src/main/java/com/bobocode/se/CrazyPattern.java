@@ -0,0 +1,108 @@
+package com.bobocode.se;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * {@link CrazyPattern} is a registry of all regular expressions used by {@link CrazyRegex}. Each constant compiles its
+ * {@link Pattern} only once, lazily on first access, using double-checked locking. Since enum constants are static
+ * holders, a compiled pattern is shared by all {@link CrazyRegex} instances and threads.
+ * <p>
+ * Every constant tracks how many times a cached pattern was served ({@link CrazyPattern#hitCount()}) and how many times it
+ * was actually compiled ({@link CrazyPattern#compileCount()}).
+ */
+public enum CrazyPattern {
+    SPECIFIC_WORD("Curiosity"),
+    FIRST_WORD("^\\w+"),
+    LAST_WORD("\\w+$"),
+    ALL_NUMBERS("\\d+"),
+    DATES("\\d{4}-\\d{2}-\\d{2}"),
+    DIFFERENT_SPELLINGS_OF_COLOR("colou?rs?"),
+    ZIP_CODES("\\s\\d{5}\\s"),
+    DIFFERENT_SPELLINGS_OF_LINK("l[yi (]nk"),
+    SIMPLE_PHONE_NUMBER("\\d{3}-\\d{3}-\\d{4}"),
+    NUMBERS_FROM_ZERO_TO_FIVE_WITH_LENGTH_THREE("[0-5]{3}"),
+    WORDS_WITH_FIVE_LENGTH("\\b[a-zA-Z]{5}\\b"),
+    LETTERS_AND_DIGITS_WITH_LENGTH_THREE("\\b[a-zA-Z0-9]{2,3}\\b"),
+    WORDS_WHICH_BEGIN_WITH_CAPITAL_LETTER("\\b[A-Z][a-z]*\\b"),
+    ABBREVIATION("A[KLRZ]|C[AOT]|P[RAD]"),
+    OPEN_BRACES("\\{+"),
+    RESOURCES("(?<=\\[)[^\\[\\]]+(?=])"),
+    LINKS_IN_NOTE("https://[\\w.]+"),
+    LINKS_IN_JSON("http://[^\"\\s]+"),
+    EMAILS("[\\w.]+@[\\w.]+\\.(com|net|edu)"),
+    PATTERNS_FOR_PHONE_NUMBERS("\\(?\\d{3}[-.)]\\d{3}[-.]\\d{4}"),
+    DUPLICATES("\\b(\\w+)\\s\\1\\b"),
+    FIRST_AND_LAST_NAMES("(\\w+),\\s+(\\w+)"),
+    PHONE_NUMBER_DIGITS("\\(?(\\d+)[-.)]\\d{3}[-.]\\d{4}"),
+    LINKS_AND_RESOURCES("\\[(.*?)]\\((http.*?)\\)");
+
+    private final String regex;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder compiles = new LongAdder();
+    private volatile Pattern pattern;
+
+    CrazyPattern(String regex) {
+        this.regex = regex;
+    }
+
+    /**
+     * Returns a regular expression of this pattern
+     *
+     * @return regex string
+     */
+    public String regex() {
+        return regex;
+    }
+
+    /**
+     * Returns a compiled {@link Pattern}. It is compiled on the first call, all subsequent calls return the same instance.
+     *
+     * @return compiled pattern
+     */
+    public Pattern pattern() {
+        Pattern result = pattern;
+        if (result == null) {
+            synchronized (this) {
+                result = pattern;
+                if (result == null) {
+                    result = Pattern.compile(regex);
+                    compiles.increment();
+                    pattern = result;
+                    return result;
+                }
+            }
+        }
+        hits.increment();
+        return result;
+    }
+
+    /**
+     * Checks if the pattern is the compiled instance of this constant. Unlike {@link CrazyPattern#pattern()}, it neither
+     * compiles the pattern nor counts a hit.
+     *
+     * @param candidate a pattern to check
+     * @return {@code true} if it is the same instance that {@link CrazyPattern#pattern()} returns
+     */
+    boolean isCompiled(Pattern candidate) {
+        return candidate != null && candidate == pattern;
+    }
+
+    /**
+     * Returns how many times a compiled pattern was served without compilation
+     *
+     * @return number of cache hits
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how many times a pattern was compiled. It is never greater than one.
+     *
+     * @return number of compilations
+     */
+    public long compileCount() {
+        return compiles.sum();
+    }
+}
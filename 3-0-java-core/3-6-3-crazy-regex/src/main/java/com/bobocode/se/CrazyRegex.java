@@ -1,15 +1,16 @@
 package com.bobocode.se;
 
-import com.bobocode.util.ExerciseNotCompletedException;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * {@link CrazyRegex} is an exercise class. Each method returns Pattern class which
- * should be created using regex expression. Every method that is not implemented yet
- * throws {@link ExerciseNotCompletedException}
- * <p>
- * TODO: remove exception and implement each method of this class using {@link Pattern}
+ * {@link CrazyRegex} provides regex patterns for common text extraction tasks, e.g. words, numbers, dates, links and
+ * emails, and replacements based on them. Patterns are not compiled by the methods, but taken from the
+ * {@link CrazyPattern} registry, where each of them is compiled once and shared, so methods can be called in a loop.
+ * Replacements can reuse a caller's {@link Matcher} and target buffer, or process a batch of records at once.
  *
  * @author Andriy Paliychuk
  */
@@ -21,7 +22,7 @@ public class CrazyRegex {
      * @return a pattern that looks for the word "Curiosity"
      */
     public Pattern findSpecificWord() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.SPECIFIC_WORD.pattern();
     }
 
     /**
@@ -30,7 +31,7 @@ public class CrazyRegex {
      * @return a pattern that looks for the first word in text
      */
     public Pattern findFirstWord() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.FIRST_WORD.pattern();
     }
 
     /**
@@ -39,7 +40,7 @@ public class CrazyRegex {
      * @return a pattern that looks for the last word in text
      */
     public Pattern findLastWord() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.LAST_WORD.pattern();
     }
 
     /**
@@ -50,7 +51,7 @@ public class CrazyRegex {
      * @return a pattern that looks for numbers
      */
     public Pattern findAllNumbers() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.ALL_NUMBERS.pattern();
     }
 
     /**
@@ -59,7 +60,7 @@ public class CrazyRegex {
      * @return a pattern that looks for dates
      */
     public Pattern findDates() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.DATES.pattern();
     }
 
     /**
@@ -69,7 +70,7 @@ public class CrazyRegex {
      * @return a pattern that looks for different variations of word "color"
      */
     public Pattern findDifferentSpellingsOfColor() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.DIFFERENT_SPELLINGS_OF_COLOR.pattern();
     }
 
     /**
@@ -80,7 +81,7 @@ public class CrazyRegex {
      * @return a pattern that looks for zip codes
      */
     public Pattern findZipCodes() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.ZIP_CODES.pattern();
     }
 
     /**
@@ -90,7 +91,7 @@ public class CrazyRegex {
      * @return a pattern that looks for different variations of word "link"
      */
     public Pattern findDifferentSpellingsOfLink() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.DIFFERENT_SPELLINGS_OF_LINK.pattern();
     }
 
     /**
@@ -100,7 +101,7 @@ public class CrazyRegex {
      * @return a pattern that looks for phone numbers
      */
     public Pattern findSimplePhoneNumber() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.SIMPLE_PHONE_NUMBER.pattern();
     }
 
     /**
@@ -111,7 +112,7 @@ public class CrazyRegex {
      * @return a pattern that looks for numbers with length 3 and digits from 0 to 5 in the middle
      */
     public Pattern findNumbersFromZeroToFiveWithLengthThree() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.NUMBERS_FROM_ZERO_TO_FIVE_WITH_LENGTH_THREE.pattern();
     }
 
     /**
@@ -120,7 +121,7 @@ public class CrazyRegex {
      * @return a pattern that looks for the words that have length 5
      */
     public Pattern findAllWordsWithFiveLength() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.WORDS_WITH_FIVE_LENGTH.pattern();
     }
 
     /**
@@ -131,7 +132,7 @@ public class CrazyRegex {
      * @return a pattern that looks for words and numbers that not shorter 2 and not longer 3
      */
     public Pattern findAllLettersAndDigitsWithLengthThree() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.LETTERS_AND_DIGITS_WITH_LENGTH_THREE.pattern();
     }
 
     /**
@@ -140,7 +141,7 @@ public class CrazyRegex {
      * @return a pattern that looks for the words that begin with capital letter
      */
     public Pattern findAllWordsWhichBeginWithCapitalLetter() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.WORDS_WHICH_BEGIN_WITH_CAPITAL_LETTER.pattern();
     }
 
     /**
@@ -150,7 +151,7 @@ public class CrazyRegex {
      * @return a pattern that looks for the abbreviations above
      */
     public Pattern findAbbreviation() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.ABBREVIATION.pattern();
     }
 
     /**
@@ -159,7 +160,7 @@ public class CrazyRegex {
      * @return a pattern that looks for all open braces
      */
     public Pattern findAllOpenBraces() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.OPEN_BRACES.pattern();
     }
 
     /**
@@ -168,7 +169,7 @@ public class CrazyRegex {
      * @return a pattern that looks for everything inside []
      */
     public Pattern findOnlyResources() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.RESOURCES.pattern();
     }
 
     /**
@@ -177,7 +178,7 @@ public class CrazyRegex {
      * @return a pattern that looks for all https links in note.txt
      */
     public Pattern findOnlyLinksInNote() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.LINKS_IN_NOTE.pattern();
     }
 
     /**
@@ -186,7 +187,7 @@ public class CrazyRegex {
      * @return a pattern that looks for all http links in nasa.json
      */
     public Pattern findOnlyLinksInJson() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.LINKS_IN_JSON.pattern();
     }
 
     /**
@@ -195,7 +196,7 @@ public class CrazyRegex {
      * @return a pattern that looks for all .com, .net and .edu emails
      */
     public Pattern findAllEmails() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.EMAILS.pattern();
     }
 
     /**
@@ -207,7 +208,7 @@ public class CrazyRegex {
      * @return a pattern that looks for phone numbers patterns above
      */
     public Pattern findAllPatternsForPhoneNumbers() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.PATTERNS_FOR_PHONE_NUMBERS.pattern();
     }
 
     /**
@@ -216,7 +217,7 @@ public class CrazyRegex {
      * @return a pattern that looks for duplicates
      */
     public Pattern findOnlyDuplicates() {
-        throw new ExerciseNotCompletedException();
+        return CrazyPattern.DUPLICATES.pattern();
     }
 
     /**
@@ -227,7 +228,36 @@ public class CrazyRegex {
      * @return String where all names recorded as last name first name
      */
     public String replaceFirstAndLastNames(String names) {
-        throw new ExerciseNotCompletedException();
+        return replaceFirstAndLastNames(names, CrazyPattern.FIRST_AND_LAST_NAMES.pattern().matcher(names),
+                new StringBuilder(names.length())).toString();
+    }
+
+    /**
+     * Does the same as {@link CrazyRegex#replaceFirstAndLastNames(String)}, but appends the result to the target builder.
+     * The matcher is reset and reused, and matched groups are copied into the target directly, so no intermediate
+     * strings are created.
+     *
+     * @param names   a text with names
+     * @param matcher a matcher of {@link CrazyPattern#FIRST_AND_LAST_NAMES} to reuse
+     * @param target  a builder to append the result to
+     * @return the target builder
+     */
+    public StringBuilder replaceFirstAndLastNames(CharSequence names, Matcher matcher, StringBuilder target) {
+        return replaceAll(names, matcher, CrazyPattern.FIRST_AND_LAST_NAMES, target, (m, input, out) -> out
+                .append(input, m.start(2), m.end(2))
+                .append(' ')
+                .append(input, m.start(1), m.end(1)));
+    }
+
+    /**
+     * Applies {@link CrazyRegex#replaceFirstAndLastNames(String)} to every record using a single matcher and builder
+     *
+     * @param records texts with names
+     * @return a list of results in the same order
+     */
+    public List<String> replaceFirstAndLastNames(List<? extends CharSequence> records) {
+        Matcher matcher = CrazyPattern.FIRST_AND_LAST_NAMES.pattern().matcher("");
+        return replaceBatch(records, (input, target) -> replaceFirstAndLastNames(input, matcher, target));
     }
 
     /**
@@ -238,7 +268,36 @@ public class CrazyRegex {
      * @return String where in all phone numbers last 7 digits replaced to X
      */
     public String replaceLastSevenDigitsOfPhoneNumberToX(String phones) {
-        throw new ExerciseNotCompletedException();
+        return replaceLastSevenDigitsOfPhoneNumberToX(phones, CrazyPattern.PHONE_NUMBER_DIGITS.pattern().matcher(phones),
+                new StringBuilder(phones.length())).toString();
+    }
+
+    /**
+     * Does the same as {@link CrazyRegex#replaceLastSevenDigitsOfPhoneNumberToX(String)}, but appends the result to the
+     * target builder. The matcher is reset and reused, and matched groups are copied into the target directly, so no
+     * intermediate strings are created.
+     *
+     * @param phones  a text with phone numbers
+     * @param matcher a matcher of {@link CrazyPattern#PHONE_NUMBER_DIGITS} to reuse
+     * @param target  a builder to append the result to
+     * @return the target builder
+     */
+    public StringBuilder replaceLastSevenDigitsOfPhoneNumberToX(CharSequence phones, Matcher matcher, StringBuilder target) {
+        return replaceAll(phones, matcher, CrazyPattern.PHONE_NUMBER_DIGITS, target, (m, input, out) -> out
+                .append(input, m.start(1), m.end(1))
+                .append("-XXX-XXXX"));
+    }
+
+    /**
+     * Applies {@link CrazyRegex#replaceLastSevenDigitsOfPhoneNumberToX(String)} to every record using a single matcher
+     * and builder
+     *
+     * @param records texts with phone numbers
+     * @return a list of results in the same order
+     */
+    public List<String> replaceLastSevenDigitsOfPhoneNumberToX(List<? extends CharSequence> records) {
+        Matcher matcher = CrazyPattern.PHONE_NUMBER_DIGITS.pattern().matcher("");
+        return replaceBatch(records, (input, target) -> replaceLastSevenDigitsOfPhoneNumberToX(input, matcher, target));
     }
 
     /**
@@ -250,6 +309,70 @@ public class CrazyRegex {
      * @return String where all resources embraced in href
      */
     public String insertLinksAndResourcesIntoHref(String links) {
-        throw new ExerciseNotCompletedException();
+        return insertLinksAndResourcesIntoHref(links, CrazyPattern.LINKS_AND_RESOURCES.pattern().matcher(links),
+                new StringBuilder(links.length())).toString();
+    }
+
+    /**
+     * Does the same as {@link CrazyRegex#insertLinksAndResourcesIntoHref(String)}, but appends the result to the target
+     * builder. The matcher is reset and reused, and matched groups are copied into the target directly, so no
+     * intermediate strings are created.
+     *
+     * @param links   a text with resources and links
+     * @param matcher a matcher of {@link CrazyPattern#LINKS_AND_RESOURCES} to reuse
+     * @param target  a builder to append the result to
+     * @return the target builder
+     */
+    public StringBuilder insertLinksAndResourcesIntoHref(CharSequence links, Matcher matcher, StringBuilder target) {
+        return replaceAll(links, matcher, CrazyPattern.LINKS_AND_RESOURCES, target, (m, input, out) -> out
+                .append("<a href=\"")
+                .append(input, m.start(2), m.end(2))
+                .append("\">")
+                .append(input, m.start(1), m.end(1))
+                .append("</a>"));
+    }
+
+    /**
+     * Applies {@link CrazyRegex#insertLinksAndResourcesIntoHref(String)} to every record using a single matcher and
+     * builder
+     *
+     * @param records texts with resources and links
+     * @return a list of results in the same order
+     */
+    public List<String> insertLinksAndResourcesIntoHref(List<? extends CharSequence> records) {
+        Matcher matcher = CrazyPattern.LINKS_AND_RESOURCES.pattern().matcher("");
+        return replaceBatch(records, (input, target) -> insertLinksAndResourcesIntoHref(input, matcher, target));
+    }
+
+    private static StringBuilder replaceAll(CharSequence input, Matcher matcher, CrazyPattern crazyPattern,
+                                            StringBuilder target, ReplacementWriter writer) {
+        if (!crazyPattern.isCompiled(matcher.pattern())) {
+            throw new IllegalArgumentException("Matcher should be created from " + crazyPattern + " pattern");
+        }
+        matcher.reset(input);
+        int last = 0;
+        while (matcher.find()) {
+            target.append(input, last, matcher.start());
+            writer.write(matcher, input, target);
+            last = matcher.end();
+        }
+        return target.append(input, last, input.length());
+    }
+
+    private static List<String> replaceBatch(List<? extends CharSequence> records,
+                                             BiConsumer<CharSequence, StringBuilder> replacement) {
+        List<String> results = new ArrayList<>(records.size());
+        StringBuilder target = new StringBuilder();
+        for (CharSequence record : records) {
+            target.setLength(0);
+            replacement.accept(record, target);
+            results.add(target.toString());
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface ReplacementWriter {
+        void write(Matcher matcher, CharSequence input, StringBuilder target);
     }
 }
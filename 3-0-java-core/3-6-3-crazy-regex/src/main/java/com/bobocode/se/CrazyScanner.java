@@ -0,0 +1,111 @@
+package com.bobocode.se;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CrazyScanner} runs several {@link CrazyRegex} extractors over a text in a single pass. All extractor patterns
+ * are combined into one alternation where each alternative is a named group, so the text is scanned once no matter how
+ * many extractors are used. Every match is reported to a {@link MatchHandler} together with its {@link MatchType}.
+ * <p>
+ * Since matches are found in one pass, they never overlap: when two extractors match at the same position, the one
+ * declared first in {@link MatchType} wins.
+ */
+public class CrazyScanner {
+    private static final CrazyScanner ALL_TYPES_SCANNER = new CrazyScanner(EnumSet.allOf(MatchType.class));
+
+    private final MatchType[] types;
+    private final Pattern pattern;
+
+    /**
+     * A type of match that is reported by the {@link CrazyScanner}
+     */
+    public enum MatchType {
+        EMAIL(CrazyPattern.EMAILS),
+        PHONE_NUMBER(CrazyPattern.PATTERNS_FOR_PHONE_NUMBERS),
+        DATE(CrazyPattern.DATES),
+        LINK(CrazyPattern.LINKS_IN_NOTE);
+
+        private final CrazyPattern crazyPattern;
+
+        MatchType(CrazyPattern crazyPattern) {
+            this.crazyPattern = crazyPattern;
+        }
+
+        private String groupName() {
+            return name().replace("_", "").toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * A callback that receives matches found by the {@link CrazyScanner}
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Handles a single match
+         *
+         * @param type  a type of the match
+         * @param text  a scanned text
+         * @param start start index of the match, inclusive
+         * @param end   end index of the match, exclusive
+         */
+        void onMatch(MatchType type, CharSequence text, int start, int end);
+    }
+
+    private CrazyScanner(Set<MatchType> types) {
+        this.types = types.toArray(new MatchType[0]);
+        this.pattern = Pattern.compile(Arrays.stream(this.types)
+                .map(type -> "(?<" + type.groupName() + ">" + type.crazyPattern.regex() + ")")
+                .collect(Collectors.joining("|")));
+    }
+
+    /**
+     * Returns a scanner that looks for all {@link MatchType}s
+     *
+     * @return a shared scanner instance
+     */
+    public static CrazyScanner allTypes() {
+        return ALL_TYPES_SCANNER;
+    }
+
+    /**
+     * Creates a scanner that looks only for provided {@link MatchType}s
+     *
+     * @param first a match type
+     * @param rest  other match types
+     * @return a new scanner
+     */
+    public static CrazyScanner of(MatchType first, MatchType... rest) {
+        return new CrazyScanner(EnumSet.of(first, rest));
+    }
+
+    /**
+     * Scans the text once and reports every found match to the handler
+     *
+     * @param text    a text to scan
+     * @param handler a callback that receives matches
+     */
+    public void scan(CharSequence text, MatchHandler handler) {
+        Objects.requireNonNull(handler);
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            handler.onMatch(matchedType(matcher), text, matcher.start(), matcher.end());
+        }
+    }
+
+    private MatchType matchedType(Matcher matcher) {
+        for (MatchType type : types) {
+            if (matcher.start(type.groupName()) != -1) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Matched group is not found");
+    }
+}
@@ -0,0 +1,104 @@
+package com.bobocode.se;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link InstrumentedPattern} wraps a {@link Pattern} and records every search into {@link PatternMetrics}. Instances
+ * are created by {@link RegexInstrumentation#instrument(Pattern)}. When the instrumentation is disabled, searches
+ * are delegated to the pattern without any recording.
+ * <p>
+ * Recording costs two {@link System#nanoTime()} calls and a few uncontended atomic increments per search, which is
+ * negligible for texts longer than a few hundred chars.
+ */
+public class InstrumentedPattern {
+    private final Pattern pattern;
+    private final PatternMetrics metrics;
+    private final RegexInstrumentation instrumentation;
+
+    /**
+     * A callback that receives matches found by the {@link InstrumentedPattern}
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Handles a single match
+         *
+         * @param matcher a matcher positioned at the match
+         */
+        void onMatch(Matcher matcher);
+    }
+
+    InstrumentedPattern(Pattern pattern, PatternMetrics metrics, RegexInstrumentation instrumentation) {
+        this.pattern = pattern;
+        this.metrics = metrics;
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * Returns the wrapped pattern. Searches done with it directly are not recorded.
+     *
+     * @return the wrapped pattern
+     */
+    public Pattern pattern() {
+        return pattern;
+    }
+
+    /**
+     * Finds all matches in the text
+     *
+     * @param text    a text to search
+     * @param handler a callback that receives matches
+     * @return a number of found matches
+     */
+    public int findAll(CharSequence text, MatchHandler handler) {
+        if (!instrumentation.isEnabled()) {
+            return find(text, handler);
+        }
+        long start = System.nanoTime();
+        int matchCount = find(text, handler);
+        metrics.record(System.nanoTime() - start, matchCount, text.length());
+        return matchCount;
+    }
+
+    /**
+     * Finds all matches in the text
+     *
+     * @param text a text to search
+     * @return a list of matched strings
+     */
+    public List<String> findAll(CharSequence text) {
+        List<String> matches = new ArrayList<>();
+        findAll(text, matcher -> matches.add(matcher.group()));
+        return matches;
+    }
+
+    /**
+     * Checks if the text contains at least one match
+     *
+     * @param text a text to search
+     * @return {@code true} if a match is found, and {@code false} otherwise
+     */
+    public boolean find(CharSequence text) {
+        if (!instrumentation.isEnabled()) {
+            return pattern.matcher(text).find();
+        }
+        long start = System.nanoTime();
+        Matcher matcher = pattern.matcher(text);
+        boolean found = matcher.find();
+        metrics.record(System.nanoTime() - start, found ? 1 : 0, found ? matcher.end() : text.length());
+        return found;
+    }
+
+    private int find(CharSequence text, MatchHandler handler) {
+        Matcher matcher = pattern.matcher(text);
+        int matchCount = 0;
+        while (matcher.find()) {
+            matchCount++;
+            handler.onMatch(matcher);
+        }
+        return matchCount;
+    }
+}
@@ -0,0 +1,225 @@
+package com.bobocode.se;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link LazyDfa} runs an {@link Nfa} in linear time. It simulates all NFA threads at once in priority order (Pike VM),
+ * so the result is the same leftmost-first match that backtracking {@link java.util.regex.Pattern} would find. Each
+ * step over a code point costs at most O(number of NFA states) and a char is never read twice within a single search,
+ * no matter how the pattern looks. Like {@link java.util.regex.Pattern}, a surrogate pair is read as a single code
+ * point, but a match may also start at its low surrogate.
+ * <p>
+ * The ordered set of active NFA states is a DFA state. DFA states and their transitions are built lazily on first use
+ * and cached, so in a steady state each char is a single array lookup plus copying of thread start positions. Only
+ * ASCII chars are cached, and the cache stops growing after {@link #MAX_CACHED_STATES} states. Instances are
+ * thread-safe.
+ */
+class LazyDfa {
+    private static final int MAX_CACHED_STATES = 1024;
+    private static final int CACHED_CHARS = 128;
+    private static final int CONTEXTS = 3; // a char before the position is: none, word char, other
+    private static final int NO_MATCH = -2;
+    private static final int NEW_THREAD = -1;
+
+    private final Nfa nfa;
+    private final Map<StateKey, DfaState> cache = new ConcurrentHashMap<>();
+    private final DfaState emptyState;
+
+    LazyDfa(Nfa nfa) {
+        this.nfa = nfa;
+        this.emptyState = intern(new int[0]);
+    }
+
+    /**
+     * Finds the next match starting from the position.
+     *
+     * @param text a text to search
+     * @param from a position to start search from
+     * @return {@code long} with match start in high and match end in low 32 bits, or {@code -1} if there is no match
+     */
+    long find(CharSequence text, int from) {
+        int length = text.length();
+        int[] starts = new int[nfa.size() + 1];
+        int[] nextStarts = new int[nfa.size() + 1];
+        DfaState state = emptyState;
+        boolean searching = true;
+        int matchStart = -1;
+        int matchEnd = -1;
+        int position = from;
+        while (position <= length) {
+            int c = position < length ? Character.codePointAt(text, position) : -1;
+            int width = c < 0 ? 1 : Character.charCount(c);
+            Transition transition = transition(state, searching, text, position, c);
+            if (transition.matchOrigin != NO_MATCH) {
+                matchStart = transition.matchOrigin == NEW_THREAD ? position : starts[transition.matchOrigin];
+                matchEnd = position;
+                searching = false;
+            }
+            int[] origins = transition.origins;
+            for (int i = 0; i < origins.length; i++) {
+                nextStarts[i] = origins[i] == NEW_THREAD ? position : starts[origins[i]];
+            }
+            DfaState next = transition.next;
+            if (width == 2 && searching) {
+                // Pattern also tries to start at the low surrogate, and such a thread reads it as a single char
+                Transition lowSurrogate = step(emptyState, true, text, position + 1, text.charAt(position + 1));
+                if (lowSurrogate.matchOrigin != NO_MATCH) {
+                    matchStart = position + 1;
+                    matchEnd = position + 1;
+                    searching = false;
+                }
+                next = merge(next, lowSurrogate.next, nextStarts, position + 1);
+            }
+            int[] swap = starts;
+            starts = nextStarts;
+            nextStarts = swap;
+            state = next;
+            position += width;
+            if (state == emptyState && !searching) {
+                break;
+            }
+        }
+        return matchStart < 0 ? -1 : (long) matchStart << 32 | matchEnd;
+    }
+
+    private Transition transition(DfaState state, boolean searching, CharSequence text, int position, int c) {
+        boolean cacheable = state.transitions != null && c >= 0 && c < CACHED_CHARS
+                && !(nfa.hasEndAssertion && position >= text.length() - 2);
+        if (!cacheable) {
+            return step(state, searching, text, position, c);
+        }
+        int context = position == 0 ? 0 : Nfa.isWordChar(Character.codePointBefore(text, position)) ? 1 : 2;
+        int index = ((searching ? CONTEXTS : 0) + context) * CACHED_CHARS + c;
+        Transition transition = state.transitions[index];
+        if (transition == null) {
+            transition = step(state, searching, text, position, c);
+            state.transitions[index] = transition; // a benign race, transitions are immutable
+        }
+        return transition;
+    }
+
+    private Transition step(DfaState state, boolean searching, CharSequence text, int position, int c) {
+        int size = nfa.size();
+        int[] closure = new int[size];
+        int[] closureOrigins = new int[size];
+        boolean[] visited = new boolean[size];
+        int[] stack = new int[2 * size + 2];
+        int closureSize = 0;
+        int threads = state.nfaStates.length + (searching ? 1 : 0);
+        for (int i = 0; i < threads; i++) {
+            int origin = i < state.nfaStates.length ? i : NEW_THREAD;
+            int top = 0;
+            stack[top++] = i < state.nfaStates.length ? state.nfaStates[i] : nfa.start;
+            while (top > 0) {
+                int s = stack[--top];
+                if (visited[s]) {
+                    continue;
+                }
+                visited[s] = true;
+                switch (nfa.type[s]) {
+                    case Nfa.SPLIT:
+                        stack[top++] = nfa.out2[s];
+                        stack[top++] = nfa.out1[s];
+                        break;
+                    case Nfa.ASSERT:
+                        if (Nfa.holds(nfa.assertion[s], text, position)) {
+                            stack[top++] = nfa.out1[s];
+                        }
+                        break;
+                    default:
+                        closure[closureSize] = s;
+                        closureOrigins[closureSize++] = origin;
+                }
+            }
+        }
+        int[] next = new int[closureSize];
+        int[] nextOrigins = new int[closureSize];
+        boolean[] added = new boolean[size];
+        int nextSize = 0;
+        int matchOrigin = NO_MATCH;
+        for (int i = 0; i < closureSize; i++) {
+            int s = closure[i];
+            if (nfa.type[s] == Nfa.MATCH) {
+                matchOrigin = closureOrigins[i];
+                break; // all threads with lower priority are cut
+            }
+            if (c >= 0 && nfa.charClass[s].matches(c) && !added[nfa.out1[s]]) {
+                added[nfa.out1[s]] = true;
+                next[nextSize] = nfa.out1[s];
+                nextOrigins[nextSize++] = closureOrigins[i];
+            }
+        }
+        return new Transition(intern(Arrays.copyOf(next, nextSize)), Arrays.copyOf(nextOrigins, nextSize), matchOrigin);
+    }
+
+    /**
+     * Appends threads of the second state with lower priority, and sets their start positions
+     */
+    private DfaState merge(DfaState first, DfaState second, int[] starts, int secondStart) {
+        int[] nfaStates = Arrays.copyOf(first.nfaStates, first.nfaStates.length + second.nfaStates.length);
+        int size = first.nfaStates.length;
+        for (int s : second.nfaStates) {
+            if (Arrays.stream(first.nfaStates).noneMatch(f -> f == s)) {
+                nfaStates[size] = s;
+                starts[size++] = secondStart;
+            }
+        }
+        return size == first.nfaStates.length ? first : intern(Arrays.copyOf(nfaStates, size));
+    }
+
+    private DfaState intern(int[] nfaStates) {
+        StateKey key = new StateKey(nfaStates);
+        DfaState state = cache.get(key);
+        if (state != null) {
+            return state;
+        }
+        if (cache.size() >= MAX_CACHED_STATES) {
+            return new DfaState(nfaStates, false);
+        }
+        return cache.computeIfAbsent(key, k -> new DfaState(nfaStates, true));
+    }
+
+    private static class DfaState {
+        private final int[] nfaStates;
+        private final Transition[] transitions;
+
+        DfaState(int[] nfaStates, boolean cached) {
+            this.nfaStates = nfaStates;
+            this.transitions = cached ? new Transition[2 * CONTEXTS * CACHED_CHARS] : null;
+        }
+    }
+
+    private static class Transition {
+        private final DfaState next;
+        private final int[] origins;
+        private final int matchOrigin;
+
+        Transition(DfaState next, int[] origins, int matchOrigin) {
+            this.next = next;
+            this.origins = origins;
+            this.matchOrigin = matchOrigin;
+        }
+    }
+
+    private static class StateKey {
+        private final int[] nfaStates;
+        private final int hash;
+
+        StateKey(int[] nfaStates) {
+            this.nfaStates = nfaStates;
+            this.hash = Arrays.hashCode(nfaStates);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey && Arrays.equals(nfaStates, ((StateKey) o).nfaStates);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.bobocode.se;
+
+public class MatchBudgetExceededException extends RuntimeException {
+    public MatchBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,496 @@
+package com.bobocode.se;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link Nfa} is a Thompson NFA compiled from a backreference-free subset of {@link java.util.regex.Pattern} syntax.
+ * It supports literals, escapes ({@code \d \D \w \W \s \S \t \n \r \f} and escaped punctuation), {@code .}, simple
+ * character classes with ranges, groups, alternation, greedy and lazy quantifiers, and {@code ^ $ \b \B} assertions.
+ * Everything else (backreferences, lookarounds, possessive quantifiers, flags, nested classes, etc.) is rejected with
+ * {@link UnsupportedSyntaxException}. Supplementary characters in the regex, and unbounded or optional repetitions of
+ * a group that can match an empty string (e.g. {@code (|a)+}) are rejected too, because {@link java.util.regex.Pattern}
+ * stops iterating after an empty iteration, and a Thompson NFA cannot express that.
+ * <p>
+ * Character classes and assertions work on code points, like ones of {@link java.util.regex.Pattern}.
+ * <p>
+ * States are stored in parallel arrays. A {@link #SPLIT} state prefers {@code out1} over {@code out2}, which gives the
+ * same leftmost-first priorities as backtracking {@link java.util.regex.Pattern}.
+ */
+class Nfa {
+    static final int CHAR_CLASS = 0;
+    static final int SPLIT = 1;
+    static final int ASSERT = 2;
+    static final int MATCH = 3;
+
+    static final int ASSERT_BEGIN = 0;
+    static final int ASSERT_END = 1;
+    static final int ASSERT_WORD_BOUNDARY = 2;
+    static final int ASSERT_NOT_WORD_BOUNDARY = 3;
+
+    private static final int MAX_STATES = 10_000;
+    private static final char LINE_SEPARATOR = (char) 0x2028;
+    private static final char PARAGRAPH_SEPARATOR = (char) 0x2029;
+
+    final int[] type;
+    final int[] out1;
+    final int[] out2;
+    final int[] assertion;
+    final CharClass[] charClass;
+    final int start;
+    final boolean hasEndAssertion;
+
+    /**
+     * Thrown when a regex uses a construct that cannot be compiled to {@link Nfa}
+     */
+    static class UnsupportedSyntaxException extends RuntimeException {
+        UnsupportedSyntaxException(String message) {
+            super(message);
+        }
+    }
+
+    private Nfa(Builder builder, int start) {
+        int size = builder.type.size();
+        this.type = builder.type.stream().mapToInt(Integer::intValue).toArray();
+        this.out1 = builder.out1.stream().mapToInt(Integer::intValue).toArray();
+        this.out2 = builder.out2.stream().mapToInt(Integer::intValue).toArray();
+        this.assertion = builder.assertion.stream().mapToInt(Integer::intValue).toArray();
+        this.charClass = builder.charClass.toArray(new CharClass[size]);
+        this.start = start;
+        this.hasEndAssertion = builder.assertion.contains(ASSERT_END);
+    }
+
+    int size() {
+        return type.length;
+    }
+
+    static Nfa compile(String regex) {
+        Node root = new Parser(regex).parse();
+        Builder builder = new Builder();
+        int match = builder.add(MATCH, -1, -1, -1, null);
+        int start = root.build(builder, match);
+        return new Nfa(builder, start);
+    }
+
+    static boolean isWordChar(int c) {
+        return c >= 0 && (Character.isLetterOrDigit(c) || c == '_');
+    }
+
+    static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == LINE_SEPARATOR || c == PARAGRAPH_SEPARATOR;
+    }
+
+    /**
+     * Checks an assertion at the position of the text. It follows {@link java.util.regex.Pattern} semantics without
+     * flags: {@code ^} matches only at the beginning of input, and {@code $} matches at the end of input or before a
+     * final line terminator.
+     */
+    static boolean holds(int assertion, CharSequence text, int position) {
+        int length = text.length();
+        switch (assertion) {
+            case ASSERT_BEGIN:
+                return position == 0;
+            case ASSERT_END:
+                return position == length
+                        || position == length - 1 && isLineTerminator(text.charAt(position))
+                        && !(position > 0 && text.charAt(position - 1) == '\r' && text.charAt(position) == '\n')
+                        || position == length - 2 && text.charAt(position) == '\r' && text.charAt(position + 1) == '\n';
+            case ASSERT_WORD_BOUNDARY:
+            case ASSERT_NOT_WORD_BOUNDARY:
+                boolean before = position > 0 && isWordChar(Character.codePointBefore(text, position));
+                boolean after = position < length && isWordChar(Character.codePointAt(text, position));
+                return (before != after) == (assertion == ASSERT_WORD_BOUNDARY);
+            default:
+                throw new IllegalStateException("Unknown assertion " + assertion);
+        }
+    }
+
+    /**
+     * A set of chars stored as sorted inclusive ranges, optionally negated
+     */
+    static class CharClass {
+        private final int[] ranges;
+        private final boolean negated;
+
+        CharClass(int[] ranges, boolean negated) {
+            this.ranges = ranges;
+            this.negated = negated;
+        }
+
+        boolean isSingleChar() {
+            return ranges.length == 2 && ranges[0] == ranges[1];
+        }
+
+        boolean matches(int c) {
+            for (int i = 0; i < ranges.length; i += 2) {
+                if (c >= ranges[i] && c <= ranges[i + 1]) {
+                    return !negated;
+                }
+            }
+            return negated;
+        }
+    }
+
+    private static class Builder {
+        private final List<Integer> type = new ArrayList<>();
+        private final List<Integer> out1 = new ArrayList<>();
+        private final List<Integer> out2 = new ArrayList<>();
+        private final List<Integer> assertion = new ArrayList<>();
+        private final List<CharClass> charClass = new ArrayList<>();
+
+        int add(int stateType, int next1, int next2, int stateAssertion, CharClass stateCharClass) {
+            if (type.size() == MAX_STATES) {
+                throw new UnsupportedSyntaxException("Regex is too big");
+            }
+            type.add(stateType);
+            out1.add(next1);
+            out2.add(next2);
+            assertion.add(stateAssertion);
+            charClass.add(stateCharClass);
+            return type.size() - 1;
+        }
+
+        void setOut1(int state, int next) {
+            out1.set(state, next);
+        }
+
+        void setOut2(int state, int next) {
+            out2.set(state, next);
+        }
+
+        /**
+         * Checks if the target state is reachable from the state without reading a char. Assertions are treated as
+         * passable, so the check is conservative.
+         */
+        boolean reachesWithoutChars(int from, int target) {
+            boolean[] visited = new boolean[type.size()];
+            List<Integer> stack = new ArrayList<>(List.of(from));
+            while (!stack.isEmpty()) {
+                int s = stack.remove(stack.size() - 1);
+                if (s == target) {
+                    return true;
+                }
+                if (visited[s]) {
+                    continue;
+                }
+                visited[s] = true;
+                if (type.get(s) == SPLIT) {
+                    stack.add(out1.get(s));
+                    stack.add(out2.get(s));
+                } else if (type.get(s) == ASSERT) {
+                    stack.add(out1.get(s));
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * A regex syntax tree node. Nodes are built back to front: each node receives the state to continue with and returns
+     * its own entry state, so a node can be built several times to expand counted repetitions.
+     */
+    private interface Node {
+        int build(Builder builder, int next);
+    }
+
+    private static class Parser {
+        private final String regex;
+        private int position;
+
+        Parser(String regex) {
+            if (regex.chars().anyMatch(c -> Character.isSurrogate((char) c))) {
+                throw new UnsupportedSyntaxException("Supplementary characters are not supported");
+            }
+            this.regex = regex;
+        }
+
+        Node parse() {
+            Node node = parseAlternation();
+            if (position < regex.length()) {
+                throw new UnsupportedSyntaxException("Unexpected character at " + position);
+            }
+            return node;
+        }
+
+        private Node parseAlternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(parseConcatenation());
+            while (peek() == '|') {
+                position++;
+                alternatives.add(parseConcatenation());
+            }
+            if (alternatives.size() == 1) {
+                return alternatives.get(0);
+            }
+            return (builder, next) -> {
+                int entry = alternatives.get(alternatives.size() - 1).build(builder, next);
+                for (int i = alternatives.size() - 2; i >= 0; i--) {
+                    entry = builder.add(SPLIT, alternatives.get(i).build(builder, next), entry, -1, null);
+                }
+                return entry;
+            };
+        }
+
+        private Node parseConcatenation() {
+            List<Node> nodes = new ArrayList<>();
+            while (position < regex.length() && peek() != '|' && peek() != ')') {
+                nodes.add(parseRepetition(parseAtom()));
+            }
+            return (builder, next) -> {
+                int entry = next;
+                for (int i = nodes.size() - 1; i >= 0; i--) {
+                    entry = nodes.get(i).build(builder, entry);
+                }
+                return entry;
+            };
+        }
+
+        private Node parseRepetition(Node atom) {
+            Node node = atom;
+            while (position < regex.length()) {
+                int min;
+                int max;
+                char c = peek();
+                if (c == '*') {
+                    min = 0;
+                    max = -1;
+                    position++;
+                } else if (c == '+') {
+                    min = 1;
+                    max = -1;
+                    position++;
+                } else if (c == '?') {
+                    min = 0;
+                    max = 1;
+                    position++;
+                } else if (c == '{' && isCountedRepetition()) {
+                    int[] bounds = parseBounds();
+                    min = bounds[0];
+                    max = bounds[1];
+                } else {
+                    return node;
+                }
+                boolean lazy = false;
+                if (peek() == '?') {
+                    lazy = true;
+                    position++;
+                } else if (peek() == '+') {
+                    throw new UnsupportedSyntaxException("Possessive quantifiers are not supported");
+                }
+                node = repeat(node, min, max, lazy);
+            }
+            return node;
+        }
+
+        private boolean isCountedRepetition() {
+            int end = regex.indexOf('}', position);
+            return end > position + 1 && regex.substring(position + 1, end).matches("\\d+(,\\d*)?");
+        }
+
+        private int[] parseBounds() {
+            int end = regex.indexOf('}', position);
+            String[] parts = regex.substring(position + 1, end).split(",", -1);
+            position = end + 1;
+            int min = Integer.parseInt(parts[0]);
+            int max = parts.length == 1 ? min : parts[1].isEmpty() ? -1 : Integer.parseInt(parts[1]);
+            if (max != -1 && max < min) {
+                throw new UnsupportedSyntaxException("Illegal repetition range");
+            }
+            return new int[]{min, max};
+        }
+
+        private static Node repeat(Node atom, int min, int max, boolean lazy) {
+            return (builder, next) -> {
+                int entry = next;
+                if (max == -1) {
+                    int loop = builder.add(SPLIT, -1, -1, -1, null);
+                    int body = atom.build(builder, loop);
+                    checkNotEmptyLoop(builder, body, loop);
+                    if (lazy) {
+                        builder.setOut2(loop, body);
+                        builder.setOut1(loop, next);
+                    } else {
+                        builder.setOut1(loop, body);
+                        builder.setOut2(loop, next);
+                    }
+                    entry = loop;
+                } else {
+                    for (int i = min; i < max; i++) {
+                        int body = atom.build(builder, entry);
+                        if (max > Math.max(min, 1)) {
+                            checkNotEmptyLoop(builder, body, entry);
+                        }
+                        entry = lazy ? builder.add(SPLIT, next, body, -1, null) : builder.add(SPLIT, body, next, -1, null);
+                    }
+                }
+                for (int i = 0; i < min; i++) {
+                    entry = atom.build(builder, entry);
+                }
+                return entry;
+            };
+        }
+
+        private static void checkNotEmptyLoop(Builder builder, int body, int next) {
+            if (builder.reachesWithoutChars(body, next)) {
+                throw new UnsupportedSyntaxException("Repetitions of an empty string are not supported");
+            }
+        }
+
+        private Node parseAtom() {
+            char c = regex.charAt(position++);
+            switch (c) {
+                case '(':
+                    return parseGroup();
+                case '[':
+                    return charClassNode(parseCharClass());
+                case '.':
+                    return charClassNode(new CharClass(new int[]{'\n', '\n', '\r', '\r', '\u0085', '\u0085',
+                            LINE_SEPARATOR, PARAGRAPH_SEPARATOR}, true));
+                case '^':
+                    return assertionNode(ASSERT_BEGIN);
+                case '$':
+                    return assertionNode(ASSERT_END);
+                case '\\':
+                    return parseEscape();
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                    throw new UnsupportedSyntaxException("Dangling meta character '" + c + "'");
+                default:
+                    return charClassNode(new CharClass(new int[]{c, c}, false));
+            }
+        }
+
+        private Node parseGroup() {
+            if (peek() == '?') {
+                if (regex.startsWith("?:", position)) {
+                    position += 2;
+                } else if (regex.startsWith("?<", position) && position + 2 < regex.length()
+                        && Character.isLetter(regex.charAt(position + 2))) {
+                    position = regex.indexOf('>', position) + 1;
+                } else {
+                    throw new UnsupportedSyntaxException("Lookarounds, flags and special groups are not supported");
+                }
+            }
+            Node node = parseAlternation();
+            if (peek() != ')') {
+                throw new UnsupportedSyntaxException("Unclosed group");
+            }
+            position++;
+            return node;
+        }
+
+        private Node parseEscape() {
+            if (position >= regex.length()) {
+                throw new UnsupportedSyntaxException("Trailing backslash");
+            }
+            char c = regex.charAt(position++);
+            switch (c) {
+                case 'b':
+                    return assertionNode(ASSERT_WORD_BOUNDARY);
+                case 'B':
+                    return assertionNode(ASSERT_NOT_WORD_BOUNDARY);
+                default:
+                    return charClassNode(escapeClass(c));
+            }
+        }
+
+        private CharClass parseCharClass() {
+            boolean negated = false;
+            if (peek() == '^') {
+                negated = true;
+                position++;
+            }
+            List<Integer> ranges = new ArrayList<>();
+            boolean first = true;
+            while (position < regex.length() && (peek() != ']' || first)) {
+                first = false;
+                char c = regex.charAt(position++);
+                if (c == '[' || c == '&' && peek() == '&') {
+                    throw new UnsupportedSyntaxException("Nested classes and intersections are not supported");
+                }
+                int low = c;
+                if (c == '\\') {
+                    CharClass escaped = escapeClass(regex.charAt(position++));
+                    if (escaped.negated) {
+                        throw new UnsupportedSyntaxException("Negated escapes inside classes are not supported");
+                    }
+                    if (!escaped.isSingleChar()) {
+                        Arrays.stream(escaped.ranges).forEach(ranges::add);
+                        continue;
+                    }
+                    low = escaped.ranges[0];
+                }
+                int high = low;
+                if (peek() == '-' && position + 1 < regex.length() && regex.charAt(position + 1) != ']') {
+                    position++;
+                    char end = regex.charAt(position++);
+                    if (end == '\\') {
+                        CharClass escaped = escapeClass(regex.charAt(position++));
+                        if (escaped.negated || !escaped.isSingleChar()) {
+                            throw new UnsupportedSyntaxException("Illegal class range");
+                        }
+                        high = escaped.ranges[0];
+                    } else {
+                        high = end;
+                    }
+                    if (high < low) {
+                        throw new UnsupportedSyntaxException("Illegal class range");
+                    }
+                }
+                ranges.add(low);
+                ranges.add(high);
+            }
+            if (peek() != ']') {
+                throw new UnsupportedSyntaxException("Unclosed character class");
+            }
+            position++;
+            return new CharClass(ranges.stream().mapToInt(Integer::intValue).toArray(), negated);
+        }
+
+        private static CharClass escapeClass(char c) {
+            switch (c) {
+                case 'd':
+                case 'D':
+                    return new CharClass(new int[]{'0', '9'}, c == 'D');
+                case 'w':
+                case 'W':
+                    return new CharClass(new int[]{'a', 'z', 'A', 'Z', '0', '9', '_', '_'}, c == 'W');
+                case 's':
+                case 'S':
+                    return new CharClass(new int[]{' ', ' ', '\t', '\r'}, c == 'S');
+                case 't':
+                    return single('\t');
+                case 'n':
+                    return single('\n');
+                case 'r':
+                    return single('\r');
+                case 'f':
+                    return single('\f');
+                default:
+                    if (Character.isLetterOrDigit(c)) {
+                        throw new UnsupportedSyntaxException("Escape \\" + c + " is not supported");
+                    }
+                    return single(c);
+            }
+        }
+
+        private static CharClass single(char c) {
+            return new CharClass(new int[]{c, c}, false);
+        }
+
+        private static Node charClassNode(CharClass charClass) {
+            return (builder, next) -> builder.add(CHAR_CLASS, next, -1, -1, charClass);
+        }
+
+        private static Node assertionNode(int assertion) {
+            return (builder, next) -> builder.add(ASSERT, next, -1, assertion, null);
+        }
+
+        private char peek() {
+            return position < regex.length() ? regex.charAt(position) : '\0';
+        }
+    }
+}
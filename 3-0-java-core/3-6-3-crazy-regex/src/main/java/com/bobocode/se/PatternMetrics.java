@@ -0,0 +1,157 @@
+package com.bobocode.se;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PatternMetrics} accumulates usage statistic of a single pattern: number of invocations, number of matches,
+ * number of scanned chars, and a latency histogram. Recording is lock-free, so it can be done from many threads.
+ * <p>
+ * The histogram uses HDR-style log-linear buckets: values below 32ns are stored exactly, and every power of two above
+ * is split into 32 sub-buckets, so any recorded latency is reported with an error below ~3%.
+ */
+public class PatternMetrics {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final String regex;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder charsScanned = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKET_COUNT);
+
+    PatternMetrics(String regex) {
+        this.regex = regex;
+    }
+
+    void record(long nanos, int matchCount, int chars) {
+        long latency = Math.max(nanos, 0);
+        invocations.increment();
+        matches.add(matchCount);
+        charsScanned.add(chars);
+        totalNanos.add(latency);
+        maxNanos.accumulate(latency);
+        histogram.incrementAndGet(bucketOf(latency));
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_BUCKET_COUNT) {
+            return bucket;
+        }
+        int exponent = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT + SUB_BUCKET_BITS;
+        long subBucket = (bucket - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+        long lowest = (1L << exponent) | subBucket << (exponent - SUB_BUCKET_BITS);
+        return lowest + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * Takes a point-in-time copy of the metrics. Counters are read one by one, so a snapshot taken during recording
+     * may be off by the invocations that are in progress.
+     *
+     * @return a snapshot of the metrics
+     */
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = histogram.get(i);
+        }
+        return new Snapshot(regex, invocations.sum(), matches.sum(), charsScanned.sum(), totalNanos.sum(),
+                maxNanos.get(), counts);
+    }
+
+    /**
+     * An immutable copy of {@link PatternMetrics}
+     */
+    public static class Snapshot {
+        private final String regex;
+        private final long invocations;
+        private final long matches;
+        private final long charsScanned;
+        private final long totalNanos;
+        private final long maxNanos;
+        private final long[] histogram;
+
+        private Snapshot(String regex, long invocations, long matches, long charsScanned, long totalNanos,
+                         long maxNanos, long[] histogram) {
+            this.regex = regex;
+            this.invocations = invocations;
+            this.matches = matches;
+            this.charsScanned = charsScanned;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.histogram = histogram;
+        }
+
+        public String getRegex() {
+            return regex;
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+
+        public long getMatches() {
+            return matches;
+        }
+
+        public long getCharsScanned() {
+            return charsScanned;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Returns a latency that is not exceeded by the given percentage of invocations
+         *
+         * @param percentile a percentile from 0 to 100
+         * @return latency in nanoseconds, or {@code 0} if nothing was recorded
+         */
+        public long getLatencyPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Percentile should be between 0 and 100");
+            }
+            long total = 0;
+            for (long count : histogram) {
+                total += count;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                seen += histogram[i];
+                if (seen >= rank) {
+                    return Math.min(highestValueOf(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "Snapshot{regex='" + regex + "', invocations=" + invocations + ", matches=" + matches
+                    + ", charsScanned=" + charsScanned + ", p50=" + getLatencyPercentile(50)
+                    + "ns, p99=" + getLatencyPercentile(99) + "ns, max=" + maxNanos + "ns}";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.bobocode.se;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * {@link RegexInstrumentation} is a registry of {@link PatternMetrics}. It wraps patterns (e.g. ones returned by
+ * {@link CrazyRegex}) into {@link InstrumentedPattern}s, and provides a snapshot of metrics of all of them. Metrics are
+ * keyed by regex, so all wrappers of the same regex share the same metrics.
+ * <p>
+ * Instrumentation is enabled by default and can be switched on and off at any time.
+ */
+public class RegexInstrumentation {
+    private final ConcurrentMap<String, PatternMetrics> metrics = new ConcurrentHashMap<>();
+    private volatile boolean enabled = true;
+
+    /**
+     * Wraps the pattern into {@link InstrumentedPattern} that records its searches
+     *
+     * @param pattern a pattern to instrument
+     * @return instrumented pattern
+     */
+    public InstrumentedPattern instrument(Pattern pattern) {
+        Objects.requireNonNull(pattern);
+        return new InstrumentedPattern(pattern, metrics.computeIfAbsent(pattern.pattern(), PatternMetrics::new), this);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Takes snapshots of metrics of all instrumented patterns
+     *
+     * @return a map where key is a regex and value is a snapshot of its metrics, sorted by regex
+     */
+    public Map<String, PatternMetrics.Snapshot> snapshot() {
+        Map<String, PatternMetrics.Snapshot> snapshots = new TreeMap<>();
+        metrics.forEach((regex, patternMetrics) -> snapshots.put(regex, patternMetrics.snapshot()));
+        return snapshots;
+    }
+}
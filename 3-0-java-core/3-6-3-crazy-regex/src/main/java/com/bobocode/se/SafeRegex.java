@@ -0,0 +1,206 @@
+package com.bobocode.se;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link SafeRegex} is a safe-mode engine for {@link CrazyRegex} patterns that protects from catastrophic backtracking.
+ * <p>
+ * A pattern that uses only the backreference-free subset of the syntax (see {@link Nfa}) is compiled to a {@link LazyDfa}
+ * and every search is guaranteed to take linear time. Its matches are the same as ones of {@link Pattern}, including
+ * texts with surrogate pairs. Any other pattern (e.g. {@link CrazyPattern#DUPLICATES} with a backreference) falls back
+ * to {@link Pattern}, but the text is wrapped so that a search throws {@link MatchBudgetExceededException} once it reads
+ * chars more than a step budget allows, or once a timeout expires.
+ * <p>
+ * Linear time is guaranteed per search, not over the whole text. A search may read chars past the end of its match
+ * while it looks for a longer one, and the next search starts at the end of the match and reads them again, so
+ * {@link #findAll(CharSequence, MatchHandler)} is quadratic in the worst case.
+ */
+public class SafeRegex {
+    public static final long DEFAULT_STEPS_PER_CHAR = 1_000;
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(1);
+
+    private final Pattern pattern;
+    private final LazyDfa dfa;
+    private final long stepsPerChar;
+    private final long timeoutNanos;
+
+    /**
+     * A callback that receives matches found by the {@link SafeRegex}
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Handles a single match
+         *
+         * @param start start index of the match, inclusive
+         * @param end   end index of the match, exclusive
+         */
+        void onMatch(int start, int end);
+    }
+
+    private SafeRegex(Pattern pattern, long stepsPerChar, Duration timeout) {
+        this.pattern = pattern;
+        this.dfa = compileDfa(pattern);
+        this.stepsPerChar = stepsPerChar;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    private static LazyDfa compileDfa(Pattern pattern) {
+        if (pattern.flags() != 0) {
+            return null;
+        }
+        try {
+            return new LazyDfa(Nfa.compile(pattern.pattern()));
+        } catch (Nfa.UnsupportedSyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a safe-mode engine with a default budget of {@link #DEFAULT_STEPS_PER_CHAR} steps per char of the text and
+     * a default timeout of {@link #DEFAULT_TIMEOUT}
+     *
+     * @param pattern a pattern to run
+     * @return new safe-mode engine
+     */
+    public static SafeRegex of(Pattern pattern) {
+        return of(pattern, DEFAULT_STEPS_PER_CHAR, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Creates a safe-mode engine. Budget and timeout apply only to patterns that fall back to {@link Pattern}, and they
+     * are counted per single {@link #findAll(CharSequence, MatchHandler)} call.
+     *
+     * @param pattern      a pattern to run
+     * @param stepsPerChar how many char reads per char of the text a fallback search may do
+     * @param timeout      max duration of a fallback search
+     * @return new safe-mode engine
+     */
+    public static SafeRegex of(Pattern pattern, long stepsPerChar, Duration timeout) {
+        Objects.requireNonNull(pattern);
+        Objects.requireNonNull(timeout);
+        if (stepsPerChar < 1) {
+            throw new IllegalArgumentException("Steps per char should be positive");
+        }
+        return new SafeRegex(pattern, stepsPerChar, timeout);
+    }
+
+    /**
+     * Returns {@code true} if the pattern is run by a linear-time engine, and {@code false} if it falls back to
+     * {@link Pattern} with a budget
+     *
+     * @return {@code true} if matching is guaranteed to be linear
+     */
+    public boolean isLinear() {
+        return dfa != null;
+    }
+
+    /**
+     * Finds all matches in the text. Each search for the next match is linear, but the whole call is not (see
+     * {@link SafeRegex}).
+     *
+     * @param text    a text to search
+     * @param handler a callback that receives matches
+     * @throws MatchBudgetExceededException if a fallback search runs out of its budget
+     */
+    public void findAll(CharSequence text, MatchHandler handler) {
+        Objects.requireNonNull(handler);
+        if (dfa != null) {
+            findAllLinear(text, handler);
+        } else {
+            findAllWithBudget(text, handler);
+        }
+    }
+
+    /**
+     * Finds all matches in the text
+     *
+     * @param text a text to search
+     * @return a list of matched strings
+     * @throws MatchBudgetExceededException if a fallback search runs out of its budget
+     */
+    public List<String> findAll(CharSequence text) {
+        List<String> matches = new ArrayList<>();
+        findAll(text, (start, end) -> matches.add(text.subSequence(start, end).toString()));
+        return matches;
+    }
+
+    private void findAllLinear(CharSequence text, MatchHandler handler) {
+        int from = 0;
+        while (from <= text.length()) {
+            long match = dfa.find(text, from);
+            if (match < 0) {
+                return;
+            }
+            int start = (int) (match >>> 32);
+            int end = (int) match;
+            handler.onMatch(start, end);
+            from = end == start ? end + 1 : end;
+        }
+    }
+
+    private void findAllWithBudget(CharSequence text, MatchHandler handler) {
+        int length = Math.max(text.length(), 1);
+        long budget = stepsPerChar > Long.MAX_VALUE / length ? Long.MAX_VALUE : stepsPerChar * length;
+        Matcher matcher = pattern.matcher(new BudgetedCharSequence(text, budget, System.nanoTime() + timeoutNanos));
+        while (matcher.find()) {
+            handler.onMatch(matcher.start(), matcher.end());
+        }
+    }
+
+    /**
+     * A {@link CharSequence} that counts every char read by {@link Matcher} and fails once the budget or the deadline
+     * is exceeded. All sub sequences share the same counters.
+     */
+    private static class BudgetedCharSequence implements CharSequence {
+        private static final int DEADLINE_CHECK_INTERVAL = 4096;
+
+        private final CharSequence text;
+        private final long[] steps;
+        private final long budget;
+        private final long deadline;
+
+        BudgetedCharSequence(CharSequence text, long budget, long deadline) {
+            this(text, new long[1], budget, deadline);
+        }
+
+        private BudgetedCharSequence(CharSequence text, long[] steps, long budget, long deadline) {
+            this.text = text;
+            this.steps = steps;
+            this.budget = budget;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(int index) {
+            long step = ++steps[0];
+            if (step > budget) {
+                throw new MatchBudgetExceededException("Regex step budget of " + budget + " is exceeded");
+            }
+            if (step % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+                throw new MatchBudgetExceededException("Regex timeout is exceeded");
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetedCharSequence(text.subSequence(start, end), steps, budget, deadline);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
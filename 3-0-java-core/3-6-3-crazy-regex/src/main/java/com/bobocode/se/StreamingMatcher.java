@@ -0,0 +1,140 @@
+package com.bobocode.se;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link StreamingMatcher} applies a {@link Pattern} (e.g. one returned by {@link CrazyRegex}) to a file or a channel
+ * without loading the whole content into memory. The input is decoded into a sliding window of characters. The tail of
+ * each window is carried over into the next one, so a match that crosses a chunk boundary is still found.
+ * <p>
+ * The memory use is bounded by {@code windowSize + 2 * maxMatchLength + 1} characters. Results are identical to matching
+ * the whole text in memory, as long as neither a match, nor a partial match attempt, nor a lookbehind is longer than
+ * {@code maxMatchLength}. Longer matches are cut at the window boundary.
+ */
+public class StreamingMatcher {
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_MATCH_LENGTH = 4 * 1024;
+    private static final int MIN_BYTE_BUFFER_SIZE = 16; // fits any single multibyte sequence, e.g. 4 bytes in UTF-8
+
+    private final Pattern pattern;
+    private final int windowSize;
+    private final int maxMatchLength;
+
+    /**
+     * A callback that receives matches found by the {@link StreamingMatcher}
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+        /**
+         * Handles a single match. The match {@link CharSequence} is only valid during this call.
+         *
+         * @param start start offset of the match in the stream of characters, inclusive
+         * @param end   end offset of the match in the stream of characters, exclusive
+         * @param match matched characters
+         */
+        void onMatch(long start, long end, CharSequence match);
+    }
+
+    public StreamingMatcher(Pattern pattern) {
+        this(pattern, DEFAULT_WINDOW_SIZE, DEFAULT_MAX_MATCH_LENGTH);
+    }
+
+    public StreamingMatcher(Pattern pattern, int windowSize, int maxMatchLength) {
+        if (windowSize < 1 || maxMatchLength < 1) {
+            throw new IllegalArgumentException("Window size and max match length should be positive");
+        }
+        this.pattern = Objects.requireNonNull(pattern);
+        this.windowSize = windowSize;
+        this.maxMatchLength = maxMatchLength;
+    }
+
+    /**
+     * Finds all matches in the file
+     *
+     * @param file    a file to scan
+     * @param charset a charset of the file
+     * @param handler a callback that receives matches
+     */
+    public void match(Path file, Charset charset, MatchHandler handler) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            match(channel, charset, handler);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the file " + file, e);
+        }
+    }
+
+    /**
+     * Finds all matches in the channel. The channel is read until its end, but it is not closed.
+     *
+     * @param channel a blocking channel to read
+     * @param charset a charset of the content
+     * @param handler a callback that receives matches
+     */
+    public void match(ReadableByteChannel channel, Charset charset, MatchHandler handler) {
+        Objects.requireNonNull(handler);
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        ByteBuffer bytes = ByteBuffer.allocate(Math.max(windowSize, MIN_BYTE_BUFFER_SIZE));
+        // one spare char, so the window is never filled up to a single free char that cannot fit a surrogate pair
+        char[] chars = new char[windowSize + 2 * maxMatchLength + 1];
+        CharBuffer window = CharBuffer.wrap(chars);
+        Matcher matcher = pattern.matcher("").useTransparentBounds(true).useAnchoringBounds(false);
+        long offset = 0; // a stream offset of chars[0]
+        int scanFrom = 0;
+        boolean endOfChannel = false;
+        boolean decoded = false;
+        boolean endOfInput = false;
+        try {
+            while (!endOfInput) {
+                while (window.remaining() >= 2 && !endOfInput) {
+                    if (!decoded) {
+                        endOfChannel = endOfChannel || channel.read(bytes) < 0;
+                        bytes.flip();
+                        CoderResult result = decoder.decode(bytes, window, endOfChannel);
+                        bytes.compact();
+                        decoded = endOfChannel && result.isUnderflow();
+                    }
+                    if (decoded) {
+                        endOfInput = decoder.flush(window).isUnderflow();
+                    }
+                }
+                int length = window.position();
+                CharBuffer text = CharBuffer.wrap(chars, 0, length);
+                matcher.reset(text).region(scanFrom, length);
+                int carryFrom = endOfInput ? length : Math.max(scanFrom, length - maxMatchLength);
+                while (matcher.find()) {
+                    int start = matcher.start();
+                    int end = matcher.end();
+                    if (!endOfInput && matcher.hitEnd() && length - start <= maxMatchLength) {
+                        carryFrom = start; // more input could change this match, so it's matched again in the next window
+                        break;
+                    }
+                    handler.onMatch(offset + start, offset + end, text.subSequence(start, end));
+                    carryFrom = Math.max(carryFrom, end);
+                }
+                int keepFrom = Math.max(0, carryFrom - maxMatchLength); // keep some context for lookbehinds and \b
+                System.arraycopy(chars, keepFrom, chars, 0, length - keepFrom);
+                window.position(length - keepFrom);
+                offset += keepFrom;
+                scanFrom = carryFrom - keepFrom;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the channel", e);
+        }
+    }
+}
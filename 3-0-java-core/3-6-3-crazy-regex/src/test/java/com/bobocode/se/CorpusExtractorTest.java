@@ -0,0 +1,76 @@
+package com.bobocode.se;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test class for {@link CorpusExtractor}.
+ */
+public class CorpusExtractorTest {
+
+    private final List<String> corpus = buildCorpus();
+
+    @Test
+    void extractOrderedKeepsDocumentOrder() {
+        CorpusExtractor extractor = new CorpusExtractor(4, CrazyPattern.EMAILS, CrazyPattern.DATES);
+
+        List<Map<CrazyPattern, List<String>>> result = extractor.extractOrdered(corpus.stream());
+
+        assertThat(result).hasSize(corpus.size());
+        for (int i = 0; i < corpus.size(); i++) {
+            assertThat(result.get(i).get(CrazyPattern.EMAILS)).isEqualTo(findAll(CrazyPattern.EMAILS, corpus.get(i)));
+            assertThat(result.get(i).get(CrazyPattern.DATES)).isEqualTo(findAll(CrazyPattern.DATES, corpus.get(i)));
+        }
+    }
+
+    @Test
+    void extractUnorderedFindsAllMatches() {
+        CorpusExtractor extractor = new CorpusExtractor(CrazyPattern.EMAILS, CrazyPattern.PATTERNS_FOR_PHONE_NUMBERS);
+
+        Map<CrazyPattern, List<String>> result = extractor.extractUnordered(corpus.stream());
+
+        assertThat(result.get(CrazyPattern.EMAILS)).containsExactlyInAnyOrderElementsOf(corpus.stream()
+                .flatMap(document -> findAll(CrazyPattern.EMAILS, document).stream())
+                .collect(Collectors.toList()));
+        assertThat(result.get(CrazyPattern.PATTERNS_FOR_PHONE_NUMBERS)).containsExactlyInAnyOrderElementsOf(corpus.stream()
+                .flatMap(document -> findAll(CrazyPattern.PATTERNS_FOR_PHONE_NUMBERS, document).stream())
+                .collect(Collectors.toList()));
+    }
+
+    private List<String> findAll(CrazyPattern pattern, String text) {
+        List<String> result = new ArrayList<>();
+        Matcher matcher = pattern.pattern().matcher(text);
+        while (matcher.find()) {
+            result.add(matcher.group());
+        }
+        return result;
+    }
+
+    private List<String> buildCorpus() {
+        List<String> lines = new ArrayList<>(readAllLines("note.txt"));
+        lines.addAll(readAllLines("nasa.json"));
+        return IntStream.range(0, 1000)
+                .mapToObj(i -> lines.get(i % lines.size()) + " id" + i + "@bobocode.com")
+                .collect(Collectors.toList());
+    }
+
+    @SneakyThrows
+    private List<String> readAllLines(String fileName) {
+        Path filePath = Paths.get(CorpusExtractor.class.getClassLoader()
+                .getResource(fileName)
+                .toURI());
+        return Files.readAllLines(filePath);
+    }
+}
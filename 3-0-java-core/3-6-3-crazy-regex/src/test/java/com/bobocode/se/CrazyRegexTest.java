@@ -9,12 +9,14 @@ import org.junit.jupiter.api.TestMethodOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.joining;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 /**
  * A test class for {@link CrazyRegex}.
@@ -223,6 +225,57 @@ public class CrazyRegexTest {
         );
     }
 
+    @Test
+    @Order(25)
+    void patternsAreCompiledOnlyOnce() {
+        Pattern emailPattern = crazyRegex.findAllEmails();
+        long hitCount = CrazyPattern.EMAILS.hitCount();
+
+        assertThat(new CrazyRegex().findAllEmails()).isSameAs(emailPattern);
+        assertThat(CrazyPattern.EMAILS.hitCount()).isEqualTo(hitCount + 1);
+        assertThat(CrazyPattern.EMAILS.compileCount()).isEqualTo(1);
+    }
+
+    @Test
+    @Order(26)
+    void replaceIntoReusedBuilder() {
+        Matcher matcher = CrazyPattern.PHONE_NUMBER_DIGITS.pattern().matcher("");
+        StringBuilder target = new StringBuilder("phones: ");
+
+        crazyRegex.replaceLastSevenDigitsOfPhoneNumberToX("(948)333-5656 1235-889-7897", matcher, target);
+
+        assertThat(target.toString()).isEqualTo("phones: 948-XXX-XXXX 1235-XXX-XXXX");
+    }
+
+    @Test
+    @Order(27)
+    void replaceBatch() {
+        List<String> result = crazyRegex.replaceFirstAndLastNames(List.of("Tarasenko, Nazar", "no names", "Zlepko, Andrii"));
+
+        assertThat(result).isEqualTo(List.of("Nazar Tarasenko", "no names", "Andrii Zlepko"));
+    }
+
+    @Test
+    @Order(28)
+    void replaceWithMatcherOfAnotherPattern() {
+        Matcher matcher = CrazyPattern.EMAILS.pattern().matcher("");
+
+        assertThatThrownBy(() -> crazyRegex.insertLinksAndResourcesIntoHref("[a](http://a.com)", matcher, new StringBuilder()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @Order(29)
+    void replaceCountsSingleHitPerCall() {
+        crazyRegex.replaceFirstAndLastNames("Tarasenko, Nazar");
+        long hitCount = CrazyPattern.FIRST_AND_LAST_NAMES.hitCount();
+
+        crazyRegex.replaceFirstAndLastNames("Zlepko, Andrii");
+        crazyRegex.replaceFirstAndLastNames(List.of("Tarasenko, Nazar", "no names", "Zlepko, Andrii"));
+
+        assertThat(CrazyPattern.FIRST_AND_LAST_NAMES.hitCount()).isEqualTo(hitCount + 2);
+    }
+
     private String regexChecker(Pattern pattern, String str2WorkWith) {
         Matcher matcher = pattern.matcher(str2WorkWith);
         StringBuilder stringBuilder = new StringBuilder();
@@ -0,0 +1,90 @@
+package com.bobocode.se;
+
+import com.bobocode.se.CrazyScanner.MatchType;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test class for {@link CrazyScanner}.
+ */
+public class CrazyScannerTest {
+
+    private final CrazyRegex crazyRegex = new CrazyRegex();
+
+    @Test
+    void scanFindsSameMatchesAsSeparatePatterns() {
+        String text = readWholeFile("note.txt") + "\n" + readWholeFile("nasa.json");
+
+        Map<MatchType, List<String>> matches = scan(CrazyScanner.allTypes(), text);
+
+        assertThat(matches.get(MatchType.EMAIL)).isEqualTo(findAll(crazyRegex.findAllEmails(), text));
+        assertThat(matches.get(MatchType.PHONE_NUMBER)).isEqualTo(findAll(crazyRegex.findAllPatternsForPhoneNumbers(), text));
+        assertThat(matches.get(MatchType.DATE)).isEqualTo(findAll(crazyRegex.findDates(), text));
+        assertThat(matches.get(MatchType.LINK)).isEqualTo(findAll(crazyRegex.findOnlyLinksInNote(), text));
+    }
+
+    @Test
+    void scanReportsOnlyRequestedTypes() {
+        String text = readWholeFile("note.txt");
+
+        Map<MatchType, List<String>> matches = scan(CrazyScanner.of(MatchType.EMAIL), text);
+
+        assertThat(matches.keySet()).containsExactly(MatchType.EMAIL);
+        assertThat(matches.get(MatchType.EMAIL)).hasSize(4);
+    }
+
+    @Test
+    void scanDoesNotDependOnDefaultLocale() {
+        String text = readWholeFile("note.txt");
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+        try {
+            Map<MatchType, List<String>> matches = scan(CrazyScanner.of(MatchType.LINK), text);
+
+            assertThat(matches.get(MatchType.LINK)).isEqualTo(findAll(crazyRegex.findOnlyLinksInNote(), text));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    private Map<MatchType, List<String>> scan(CrazyScanner scanner, String text) {
+        Map<MatchType, List<String>> matches = new EnumMap<>(MatchType.class);
+        scanner.scan(text, (type, input, start, end) ->
+                matches.computeIfAbsent(type, t -> new ArrayList<>()).add(input.subSequence(start, end).toString()));
+        return matches;
+    }
+
+    private List<String> findAll(Pattern pattern, String text) {
+        List<String> result = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            result.add(matcher.group());
+        }
+        return result;
+    }
+
+    @SneakyThrows
+    private String readWholeFile(String fileName) {
+        Path filePath = Paths.get(CrazyScanner.class.getClassLoader()
+                .getResource(fileName)
+                .toURI());
+        try (Stream<String> fileLinesStream = Files.lines(filePath)) {
+            return fileLinesStream.collect(joining("\n"));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.bobocode.se;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test class for {@link RegexInstrumentation}.
+ */
+public class RegexInstrumentationTest {
+
+    private final CrazyRegex crazyRegex = new CrazyRegex();
+    private final RegexInstrumentation instrumentation = new RegexInstrumentation();
+
+    @Test
+    void recordsInvocationsMatchesAndScannedChars() {
+        InstrumentedPattern emails = instrumentation.instrument(crazyRegex.findAllEmails());
+        String text = "john@yahoo.com and ann@nyu.edu";
+
+        List<String> found = emails.findAll(text);
+        emails.findAll("nothing here");
+
+        PatternMetrics.Snapshot snapshot = instrumentation.snapshot().get(crazyRegex.findAllEmails().pattern());
+        assertThat(found).containsExactly("john@yahoo.com", "ann@nyu.edu");
+        assertThat(snapshot.getInvocations()).isEqualTo(2);
+        assertThat(snapshot.getMatches()).isEqualTo(2);
+        assertThat(snapshot.getCharsScanned()).isEqualTo(text.length() + "nothing here".length());
+        assertThat(snapshot.getLatencyPercentile(100)).isEqualTo(snapshot.getMaxNanos());
+    }
+
+    @Test
+    void sharesMetricsOfSameRegex() {
+        instrumentation.instrument(crazyRegex.findDates()).find("2015-05-30");
+        instrumentation.instrument(crazyRegex.findDates()).find("2012-08-06");
+
+        Map<String, PatternMetrics.Snapshot> snapshots = instrumentation.snapshot();
+
+        assertThat(snapshots).hasSize(1);
+        assertThat(snapshots.get(crazyRegex.findDates().pattern()).getInvocations()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotRecordWhenDisabled() {
+        InstrumentedPattern zipCodes = instrumentation.instrument(crazyRegex.findZipCodes());
+        instrumentation.setEnabled(false);
+
+        int matchCount = zipCodes.findAll("CA 01001 AK", matcher -> {
+        });
+
+        assertThat(matchCount).isEqualTo(1);
+        assertThat(instrumentation.snapshot().get(crazyRegex.findZipCodes().pattern()).getInvocations()).isZero();
+    }
+
+    @Test
+    void histogramBucketsKeepRelativeErrorSmall() {
+        for (long value : new long[]{0, 31, 32, 33, 1_000, 123_456, 987_654_321, Long.MAX_VALUE}) {
+            long highest = PatternMetrics.highestValueOf(PatternMetrics.bucketOf(value));
+
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo(value / 32);
+        }
+    }
+}
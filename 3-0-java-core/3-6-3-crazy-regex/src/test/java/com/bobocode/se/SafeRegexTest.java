@@ -0,0 +1,121 @@
+package com.bobocode.se;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A test class for {@link SafeRegex}.
+ */
+public class SafeRegexTest {
+
+    @ParameterizedTest
+    @EnumSource(CrazyPattern.class)
+    void safeMatchesAreIdenticalToPatternMatches(CrazyPattern crazyPattern) {
+        SafeRegex safeRegex = SafeRegex.of(crazyPattern.pattern());
+
+        for (String fileName : List.of("note.txt", "nasa.json")) {
+            String text = readWholeFile(fileName);
+            assertThat(safeRegex.findAll(text)).isEqualTo(findAll(crazyPattern.pattern(), text));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a|ab", "ab|a", "\\w+?o", "(\\w+)\\s+\\w*?", "\\B\\w{2}\\b", "[^\\s\\d]{3,5}",
+            "x*", "\\d*", "^|$", "\\w+$", "(?:co|col)(?:o|ou)r", "[.\\-]\\d{3,}?", "\"[a-z_]+\":"})
+    void safeMatchesAreIdenticalForOtherPatterns(String regex) {
+        Pattern pattern = Pattern.compile(regex);
+        SafeRegex safeRegex = SafeRegex.of(pattern);
+
+        assertThat(safeRegex.isLinear()).isTrue();
+        for (String fileName : List.of("note.txt", "nasa.json")) {
+            String text = readWholeFile(fileName);
+            assertThat(safeRegex.findAll(text)).isEqualTo(findAll(pattern, text));
+        }
+    }
+
+    @Test
+    void surrogatePairIsMatchedAsSingleCodePoint() {
+        String text = "ab  \uD83D\uDE00";
+        Pattern pattern = Pattern.compile("\\B.");
+        SafeRegex safeRegex = SafeRegex.of(pattern);
+        List<String> matches = new ArrayList<>();
+        safeRegex.findAll(text, (start, end) -> matches.add(start + ":" + end));
+
+        assertThat(safeRegex.isLinear()).isTrue();
+        assertThat(matches).containsExactly("1:2", "3:4", "4:6");
+        assertThat(safeRegex.findAll(text)).isEqualTo(findAll(pattern, text));
+    }
+
+    @Test
+    void repetitionsOfEmptyStringFallBackToPattern() {
+        String text = "ba";
+        Pattern pattern = Pattern.compile("(|a)+");
+        SafeRegex safeRegex = SafeRegex.of(pattern);
+        List<String> matches = new ArrayList<>();
+        safeRegex.findAll(text, (start, end) -> matches.add(start + ":" + end));
+
+        assertThat(safeRegex.isLinear()).isFalse();
+        assertThat(matches).containsExactly("0:0", "1:1", "2:2");
+    }
+
+    @Test
+    void patternsWithoutBackreferencesAndLookaroundsAreLinear() {
+        assertThat(SafeRegex.of(CrazyPattern.EMAILS.pattern()).isLinear()).isTrue();
+        assertThat(SafeRegex.of(CrazyPattern.PATTERNS_FOR_PHONE_NUMBERS.pattern()).isLinear()).isTrue();
+        assertThat(SafeRegex.of(CrazyPattern.LINKS_AND_RESOURCES.pattern()).isLinear()).isTrue();
+        assertThat(SafeRegex.of(CrazyPattern.DUPLICATES.pattern()).isLinear()).isFalse();
+        assertThat(SafeRegex.of(CrazyPattern.RESOURCES.pattern()).isLinear()).isFalse();
+    }
+
+    @Test
+    @Timeout(5)
+    void linearEngineHandlesPathologicalInput() {
+        String text = "a".repeat(10_000);
+        SafeRegex safeRegex = SafeRegex.of(Pattern.compile("(a+)+b"));
+
+        assertThat(safeRegex.isLinear()).isTrue();
+        assertThat(safeRegex.findAll(text)).isEmpty();
+    }
+
+    @Test
+    @Timeout(5)
+    void fallbackEngineStopsOnPathologicalInput() {
+        String text = "a".repeat(40);
+        SafeRegex safeRegex = SafeRegex.of(Pattern.compile("(a+)+\\1?b"));
+
+        assertThat(safeRegex.isLinear()).isFalse();
+        assertThatThrownBy(() -> safeRegex.findAll(text)).isInstanceOf(MatchBudgetExceededException.class);
+    }
+
+    private List<String> findAll(Pattern pattern, String text) {
+        List<String> result = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            result.add(matcher.group());
+        }
+        return result;
+    }
+
+    @SneakyThrows
+    private String readWholeFile(String fileName) {
+        Path filePath = Paths.get(SafeRegex.class.getClassLoader()
+                .getResource(fileName)
+                .toURI());
+        return Files.readString(filePath);
+    }
+}
@@ -0,0 +1,107 @@
+package com.bobocode.se;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A test class for {@link StreamingMatcher}.
+ */
+public class StreamingMatcherTest {
+
+    static Stream<Arguments> patternsAndFiles() {
+        return Arrays.stream(CrazyPattern.values())
+                .flatMap(crazyPattern -> Stream.of("note.txt", "nasa.json")
+                        .flatMap(fileName -> Stream.of(7, 64, StreamingMatcher.DEFAULT_WINDOW_SIZE)
+                                .map(windowSize -> Arguments.of(crazyPattern, fileName, windowSize))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("patternsAndFiles")
+    void streamingMatchesAreIdenticalToInMemoryMatches(CrazyPattern crazyPattern, String fileName, int windowSize) {
+        Path file = getFilePath(fileName);
+        Pattern pattern = crazyPattern.pattern();
+        List<String> inMemoryMatches = new ArrayList<>();
+        int longestMatch = findInMemory(pattern, file, inMemoryMatches);
+        List<String> streamingMatches = new ArrayList<>();
+
+        new StreamingMatcher(pattern, windowSize, Math.max(longestMatch, 64))
+                .match(file, StandardCharsets.UTF_8, (start, end, match) -> streamingMatches.add(start + ":" + match));
+
+        assertThat(streamingMatches).isEqualTo(inMemoryMatches);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 7, 64})
+    @Timeout(5)
+    void supplementaryCharactersAcrossWindowBoundary(int windowSize) {
+        String text = "a\uD83D\uDE00bc\uD83D\uDE00\uD83D\uDE0012 \uD83D\uDE00x".repeat(50);
+        Pattern pattern = Pattern.compile("\\p{So}|\\d");
+
+        assertThat(findStreaming(new StreamingMatcher(pattern, windowSize, 2), text))
+                .isEqualTo(findInMemory(pattern, text));
+    }
+
+    @Test
+    @Timeout(5)
+    void supplementaryCharacterAfterFullDefaultWindow() {
+        int windowChars = StreamingMatcher.DEFAULT_WINDOW_SIZE + 2 * StreamingMatcher.DEFAULT_MAX_MATCH_LENGTH;
+        String text = "a".repeat(windowChars - 1) + "\uD83D\uDE00xyz";
+        Pattern pattern = Pattern.compile("\\p{So}");
+
+        assertThat(findStreaming(new StreamingMatcher(pattern), text)).isEqualTo(findInMemory(pattern, text));
+    }
+
+    private List<String> findStreaming(StreamingMatcher streamingMatcher, String text) {
+        List<String> matches = new ArrayList<>();
+        streamingMatcher.match(Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))),
+                StandardCharsets.UTF_8, (start, end, match) -> matches.add(start + ":" + match));
+        return matches;
+    }
+
+    private List<String> findInMemory(Pattern pattern, String text) {
+        List<String> matches = new ArrayList<>();
+        Matcher matcher = pattern.matcher(text);
+        while (matcher.find()) {
+            matches.add(matcher.start() + ":" + matcher.group());
+        }
+        return matches;
+    }
+
+    @SneakyThrows
+    private int findInMemory(Pattern pattern, Path file, List<String> matches) {
+        int longestMatch = 0;
+        Matcher matcher = pattern.matcher(Files.readString(file));
+        while (matcher.find()) {
+            matches.add(matcher.start() + ":" + matcher.group());
+            longestMatch = Math.max(longestMatch, matcher.end() - matcher.start());
+        }
+        return longestMatch;
+    }
+
+    @SneakyThrows
+    private Path getFilePath(String fileName) {
+        return Paths.get(StreamingMatcher.class.getClassLoader()
+                .getResource(fileName)
+                .toURI());
+    }
+}
@@ -0,0 +1,122 @@
+package com.bobocode.oop.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link ConcurrentFlightDao} is a {@link FlightDao} that uses a concurrent set to store flight numbers. Stored flight
+ * numbers are also indexed by {@link TrigramIndex}, so searching by a query of three or more characters does not need
+ * to scan all flights.
+ * <p>
+ * All methods can be called from many threads without external locking. A flight number becomes visible to
+ * {@link #search(String)} right after it is indexed, that is shortly after it is added by {@link #register(String)}.
+ */
+public class ConcurrentFlightDao implements FlightDao {
+    public static final int PARALLEL_INGEST_THRESHOLD = 10_000;
+
+    private final Set<String> flights;
+    private final TrigramIndex index = new TrigramIndex();
+
+    public ConcurrentFlightDao() {
+        this.flights = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Creates a DAO with a flight set sized up front, so loading the expected number of flights does not resize it
+     *
+     * @param expectedSize an expected number of flights
+     */
+    public ConcurrentFlightDao(int expectedSize) {
+        this.flights = ConcurrentHashMap.newKeySet(expectedSize);
+    }
+
+    /**
+     * Stores a new flight number
+     *
+     * @param flightNumber a flight number to store
+     * @return {@code true} if a flight number was stored, {@code false} otherwise
+     */
+    @Override
+    public boolean register(String flightNumber) {
+        if (this.flights.add(flightNumber)) {
+            this.index.add(flightNumber);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Stores new flight numbers in bulk. The search index is updated once for the whole batch, and batches of at
+     * least {@link #PARALLEL_INGEST_THRESHOLD} flight numbers are split and stored in parallel.
+     *
+     * @param flightNumbers flight numbers to store
+     * @return a list of results in the iteration order of flight numbers, where every element is {@code true} if a
+     * flight number was stored, and {@code false} if it was already stored, or it is a duplicate within the batch
+     */
+    @Override
+    public List<Boolean> registerAll(Collection<String> flightNumbers) {
+        List<String> batch = flightNumbers instanceof List && flightNumbers instanceof RandomAccess
+                ? (List<String>) flightNumbers
+                : new ArrayList<>(flightNumbers);
+        boolean parallel = batch.size() >= PARALLEL_INGEST_THRESHOLD;
+        boolean[] registered = new boolean[batch.size()];
+        if (parallel) {
+            // claim every flight number by its first position, so duplicates are resolved as in a sequential loop
+            ConcurrentMap<String, Integer> firstPositions = new ConcurrentHashMap<>(batch.size());
+            IntStream.range(0, batch.size()).parallel().forEach(i -> firstPositions.merge(batch.get(i), i, Math::min));
+            IntStream.range(0, batch.size()).parallel().forEach(i -> registered[i] =
+                    firstPositions.get(batch.get(i)) == i && this.flights.add(batch.get(i)));
+        } else {
+            for (int i = 0; i < batch.size(); i++) {
+                registered[i] = this.flights.add(batch.get(i));
+            }
+        }
+
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < registered.length; i++) {
+            if (registered[i]) {
+                added.add(batch.get(i));
+            }
+        }
+        this.index.addAll(added, parallel);
+        return IntStream.range(0, registered.length).mapToObj(i -> registered[i]).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns all stored flight numbers. The returned set is an unmodifiable view, and its iteration is weakly
+     * consistent: it never throws {@link java.util.ConcurrentModificationException} and may or may not reflect
+     * registrations made during the iteration.
+     *
+     * @return a set of flight numbers
+     */
+    @Override
+    public Set<String> findAll() {
+        return Collections.unmodifiableSet(this.flights);
+    }
+
+    /**
+     * Returns a lazy stream of stored flight numbers that contain a provided query. Queries shorter than
+     * {@link TrigramIndex#GRAM_LENGTH} characters are answered by scanning all flights.
+     *
+     * @param query a search query
+     * @return a stream of found flight numbers
+     */
+    @Override
+    public Stream<String> searchStream(String query) {
+        Collection<String> candidates = query.length() < TrigramIndex.GRAM_LENGTH
+                ? this.flights
+                : this.index.candidates(query);
+        return candidates.stream().filter(i -> i.contains(query));
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.bobocode.oop.data;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link FileSync} forces files and directories of {@link FlightLog} to the storage device. It is a separate strategy
+ * so the order of forces can be verified without a power loss.
+ */
+interface FileSync {
+    FileSync DEFAULT = new FileSync() {
+        @Override
+        public void force(Path file, FileChannel channel, boolean metaData) throws IOException {
+            channel.force(metaData);
+        }
+
+        @Override
+        public void forceDirectory(Path directory) throws IOException {
+            if (System.getProperty("os.name").startsWith("Windows")) {
+                return; // directories cannot be opened on Windows, and renames are durable there anyway
+            }
+            try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                channel.force(true);
+            }
+        }
+    };
+
+    /**
+     * Forces an open file
+     *
+     * @param file     a path of the file
+     * @param channel  an open channel of the file
+     * @param metaData whether file metadata should be forced too
+     */
+    void force(Path file, FileChannel channel, boolean metaData) throws IOException;
+
+    /**
+     * Forces a directory, so files created, renamed or deleted in it survive a power loss
+     *
+     * @param directory a path of the directory
+     */
+    void forceDirectory(Path directory) throws IOException;
+}
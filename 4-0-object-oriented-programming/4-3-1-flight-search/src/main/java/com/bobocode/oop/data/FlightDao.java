@@ -1,16 +1,25 @@
 package com.bobocode.oop.data;
 
-import com.bobocode.util.ExerciseNotCompletedException;
-
-import java.util.HashSet;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * {@link FlightDao} represents a Data Access Object (DAO) for flights. The implementation is simplified, so it just
- * uses {@link HashSet} to store flight numbers.
+ * {@link FlightDao} represents a Data Access Object (DAO) for flights. Implementations differ in how flight numbers
+ * are stored and searched:
+ * <ul>
+ *     <li>{@link HashSetFlightDao} is a plain hash set, that is scanned on every search</li>
+ *     <li>{@link SortedFlightDao} keeps flight numbers sorted</li>
+ *     <li>{@link ConcurrentFlightDao} is a thread-safe set with a trigram search index</li>
+ *     <li>{@link RadixTreeFlightDao} shares common prefixes of flight numbers in a compressed radix tree</li>
+ *     <li>{@link PersistentFlightDao} writes flight numbers of another DAO to a log file</li>
+ * </ul>
  */
-public class FlightDao {
-    private Set<String> flights = new HashSet<>();
+public interface FlightDao extends Closeable {
 
     /**
      * Stores a new flight number
@@ -18,22 +27,67 @@ public class FlightDao {
      * @param flightNumber a flight number to store
      * @return {@code true} if a flight number was stored, {@code false} otherwise
      */
-    public boolean register(String flightNumber) {
-        if (!this.flights.contains(flightNumber)) {
-            this.flights.add(flightNumber);
-            return true;
-        } else {
-            return false;
+    boolean register(String flightNumber);
+
+    /**
+     * Stores new flight numbers in bulk
+     *
+     * @param flightNumbers flight numbers to store
+     * @return a list of results in the iteration order of flight numbers, where every element is {@code true} if a
+     * flight number was stored, and {@code false} if it was already stored, or it is a duplicate within the batch
+     */
+    default List<Boolean> registerAll(Collection<String> flightNumbers) {
+        List<Boolean> registered = new ArrayList<>(flightNumbers.size());
+        for (String flightNumber : flightNumbers) {
+            registered.add(register(flightNumber));
         }
+        return registered;
     }
 
     /**
      * Returns all stored flight numbers
      *
-     * @return a set of flight numbers
+     * @return an unmodifiable set of flight numbers
      */
-    public Set<String> findAll() {
-        return this.flights;
+    Set<String> findAll();
+
+    /**
+     * Returns all stored flight numbers that contain a provided query
+     *
+     * @param query a search query
+     * @return a list of found flight numbers
+     */
+    default List<String> search(String query) {
+        return searchStream(query).collect(Collectors.toList());
     }
 
+    /**
+     * Returns a lazy stream of stored flight numbers that contain a provided query. Candidates are checked only as
+     * the stream is consumed, so a short-circuiting operation (e.g. {@link Stream#limit(long)}) stops the search.
+     *
+     * @param query a search query
+     * @return a stream of found flight numbers
+     */
+    Stream<String> searchStream(String query);
+
+    /**
+     * Returns all stored flight numbers that start with a provided prefix. By default, all flight numbers are
+     * scanned, and backends that keep flight numbers ordered override it with a range lookup.
+     *
+     * @param prefix a prefix to search by
+     * @return a sorted list of found flight numbers
+     */
+    default List<String> searchByPrefix(String prefix) {
+        return findAll().stream()
+                .filter(i -> i.startsWith(prefix))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Releases resources held by the DAO. Does nothing by default.
+     */
+    @Override
+    default void close() {
+    }
 }
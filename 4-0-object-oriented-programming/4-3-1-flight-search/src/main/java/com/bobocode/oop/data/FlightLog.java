@@ -0,0 +1,407 @@
+package com.bobocode.oop.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * {@link FlightLog} is an append-only log of flight numbers used by {@link PersistentFlightDao}.
+ * <p>
+ * The log file starts with a header, and is followed by records. Every record is a length, a CRC32 checksum and
+ * UTF-8 bytes of a non-empty flight number. Empty records are never written, since a zero-filled tail of a file (e.g.
+ * preallocated blocks after a crash) would look like a valid empty record with a zero checksum. Registrations are appended to an in-memory buffer, and the first thread that commits
+ * writes (and forces according to {@link FsyncPolicy}) the whole buffer at once, so concurrent registrations share a
+ * single write and a single fsync (group commit).
+ * <p>
+ * On open, the log is recovered by memory-mapping and scanning it. A torn or corrupted tail left by a crash is
+ * truncated. Compaction writes all flight numbers into a snapshot file next to the log, and empties the log. The
+ * snapshot is written into a temporary file and then atomically moved, and the directory is forced before the log is
+ * truncated, so a crash during compaction never loses data.
+ * <p>
+ * With {@link FsyncPolicy#PERIODIC} a background thread forces written records every
+ * {@link #PERIODIC_FSYNC_INTERVAL}, so they are forced even if no more registrations arrive.
+ */
+class FlightLog implements Closeable {
+    static final Duration PERIODIC_FSYNC_INTERVAL = Duration.ofMillis(100);
+    static final int MAX_FLIGHT_NUMBER_LENGTH = 1024;
+
+    private static final int LOG_MAGIC = 0x464C4F47; // FLOG
+    private static final int SNAPSHOT_MAGIC = 0x464C534E; // FLSN
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_LENGTH = 2 * Integer.BYTES;
+    private static final long MAP_CHUNK_SIZE = 64L * 1024 * 1024;
+    private static final int INITIAL_BUFFER_CAPACITY = 64 * 1024;
+
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final FileChannel channel;
+    private final FsyncPolicy fsyncPolicy;
+    private final FileSync fileSync;
+    private final ScheduledExecutorService periodicFlusher;
+
+    private final Object appendLock = new Object();
+    private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_CAPACITY); // guarded by appendLock
+    private long appendedSequence; // guarded by appendLock
+
+    private final Object commitLock = new Object();
+    private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_CAPACITY); // guarded by commitLock
+    private long writePosition; // guarded by commitLock
+    private long lastForceNanos; // guarded by commitLock
+    private boolean unforced; // guarded by commitLock
+    private IOException failure; // guarded by commitLock
+    private volatile long committedSequence;
+
+    private FlightLog(Path logFile, Path snapshotFile, FileChannel channel, FsyncPolicy fsyncPolicy,
+                      FileSync fileSync, long writePosition) {
+        this.logFile = logFile;
+        this.snapshotFile = snapshotFile;
+        this.channel = channel;
+        this.fsyncPolicy = fsyncPolicy;
+        this.fileSync = fileSync;
+        this.writePosition = writePosition;
+        this.lastForceNanos = System.nanoTime();
+        if (fsyncPolicy == FsyncPolicy.PERIODIC) {
+            long interval = PERIODIC_FSYNC_INTERVAL.toNanos();
+            this.periodicFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "flight-log-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            periodicFlusher.scheduleWithFixedDelay(this::forceIfUnforced, interval, interval, TimeUnit.NANOSECONDS);
+        } else {
+            this.periodicFlusher = null;
+        }
+    }
+
+    /**
+     * Opens a log file, creating it if it does not exist, and replays its snapshot and records
+     *
+     * @param logFile          a path to the log file
+     * @param fsyncPolicy      a policy of forcing the log
+     * @param snapshotConsumer a callback that receives every flight number recovered from the snapshot
+     * @param logConsumer      a callback that receives every flight number recovered from the log after the snapshot
+     * @return opened log
+     */
+    static FlightLog open(Path logFile, FsyncPolicy fsyncPolicy, Consumer<String> snapshotConsumer,
+                          Consumer<String> logConsumer) {
+        return open(logFile, fsyncPolicy, FileSync.DEFAULT, snapshotConsumer, logConsumer);
+    }
+
+    static FlightLog open(Path logFile, FsyncPolicy fsyncPolicy, FileSync fileSync, Consumer<String> snapshotConsumer,
+                          Consumer<String> logConsumer) {
+        Path snapshotFile = logFile.resolveSibling(logFile.getFileName() + ".snapshot");
+        FileChannel channel = null;
+        try {
+            if (Files.exists(snapshotFile)) {
+                readSnapshot(snapshotFile, snapshotConsumer);
+            }
+            channel = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            long writePosition;
+            if (channel.size() < HEADER_LENGTH) {
+                writeHeader(channel, LOG_MAGIC);
+                channel.truncate(HEADER_LENGTH);
+                fileSync.force(logFile, channel, true);
+                writePosition = HEADER_LENGTH;
+            } else {
+                checkHeader(channel, LOG_MAGIC, logFile);
+                writePosition = scan(channel, HEADER_LENGTH, logConsumer);
+                if (writePosition < channel.size()) {
+                    channel.truncate(writePosition);
+                    fileSync.force(logFile, channel, true);
+                }
+            }
+            return new FlightLog(logFile, snapshotFile, channel, fsyncPolicy, fileSync, writePosition);
+        } catch (IOException e) {
+            closeQuietly(channel);
+            throw new UncheckedIOException("Cannot open flight log " + logFile, e);
+        } catch (RuntimeException e) {
+            closeQuietly(channel);
+            throw e;
+        }
+    }
+
+    /**
+     * Encodes a flight number into a log record
+     *
+     * @param flightNumber a flight number
+     * @return encoded record
+     * @throws IllegalArgumentException if a flight number is empty or longer than {@link #MAX_FLIGHT_NUMBER_LENGTH}
+     *                                  bytes
+     */
+    static byte[] encode(String flightNumber) {
+        byte[] bytes = flightNumber.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length == 0) {
+            throw new IllegalArgumentException("Flight number should not be empty");
+        }
+        if (bytes.length > MAX_FLIGHT_NUMBER_LENGTH) {
+            throw new IllegalArgumentException("Flight number is longer than " + MAX_FLIGHT_NUMBER_LENGTH + " bytes");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return ByteBuffer.allocate(RECORD_HEADER_LENGTH + bytes.length)
+                .putInt(bytes.length)
+                .putInt((int) crc.getValue())
+                .put(bytes)
+                .array();
+    }
+
+    /**
+     * Appends a record to the in-memory buffer. The record is not written until {@link #commit(long)} is called.
+     *
+     * @param record a record created by {@link #encode(String)}
+     * @return a sequence number of the record
+     */
+    long append(byte[] record) {
+        synchronized (appendLock) {
+            if (pending.remaining() < record.length) {
+                pending = grow(pending, record.length);
+            }
+            pending.put(record);
+            return ++appendedSequence;
+        }
+    }
+
+    /**
+     * Writes all appended records up to the sequence number, unless they are already written by another thread
+     *
+     * @param sequence a sequence number returned by {@link #append(byte[])}
+     */
+    void commit(long sequence) {
+        if (committedSequence >= sequence) {
+            return;
+        }
+        synchronized (commitLock) {
+            checkNotFailed();
+            if (committedSequence < sequence) {
+                flush(fsyncPolicy == FsyncPolicy.ALWAYS
+                        || fsyncPolicy == FsyncPolicy.PERIODIC
+                        && System.nanoTime() - lastForceNanos >= PERIODIC_FSYNC_INTERVAL.toNanos());
+            }
+        }
+    }
+
+    /**
+     * Writes all flight numbers into a new snapshot and empties the log. Records must not be appended concurrently.
+     *
+     * @param flights all flight numbers, including ones that are in the log
+     */
+    void compact(Collection<String> flights) {
+        synchronized (commitLock) {
+            checkNotFailed();
+            flush(false);
+            try {
+                writeSnapshot(flights);
+                channel.truncate(HEADER_LENGTH);
+                fileSync.force(logFile, channel, true);
+                writePosition = HEADER_LENGTH;
+                lastForceNanos = System.nanoTime();
+                unforced = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot compact flight log", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (periodicFlusher != null) {
+            periodicFlusher.shutdown(); // not shutdownNow(), an interrupt would close the channel during a force
+        }
+        synchronized (commitLock) {
+            try {
+                if (failure == null) { // records after a lost batch must not be written
+                    flush(true);
+                }
+            } finally {
+                closeQuietly(channel);
+            }
+        }
+    }
+
+    private void flush(boolean force) {
+        ByteBuffer batch;
+        long batchSequence;
+        synchronized (appendLock) {
+            batch = pending;
+            batchSequence = appendedSequence;
+            pending = spare;
+        }
+        try {
+            batch.flip();
+            while (batch.hasRemaining()) {
+                writePosition += channel.write(batch, writePosition);
+            }
+            if (force) {
+                fileSync.force(logFile, channel, false);
+                lastForceNanos = System.nanoTime();
+                unforced = false;
+            } else if (batch.limit() > 0) {
+                unforced = true;
+            }
+        } catch (IOException e) {
+            failure = e; // records of the batch are lost, so nothing can be committed after them
+            throw new UncheckedIOException("Cannot write flight log", e);
+        } finally {
+            batch.clear();
+            spare = batch;
+        }
+        committedSequence = batchSequence;
+    }
+
+    /**
+     * Forces records that are committed but not forced yet. It is run by the periodic flusher, so records acknowledged
+     * with {@link FsyncPolicy#PERIODIC} are forced even if no later commit arrives.
+     */
+    private void forceIfUnforced() {
+        synchronized (commitLock) {
+            if (!unforced || failure != null || !channel.isOpen()) {
+                return;
+            }
+            try {
+                fileSync.force(logFile, channel, false);
+                lastForceNanos = System.nanoTime();
+                unforced = false;
+            } catch (IOException e) {
+                failure = e; // committers see the failure on their next commit
+            }
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Flight log has failed before", failure);
+        }
+    }
+
+    private void writeSnapshot(Collection<String> flights) throws IOException {
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel snapshot = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(snapshot, SNAPSHOT_MAGIC);
+            ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_CAPACITY);
+            for (String flightNumber : flights) {
+                byte[] record = encode(flightNumber);
+                if (buffer.remaining() < record.length) {
+                    writeFully(snapshot, buffer);
+                }
+                buffer.put(record);
+            }
+            writeFully(snapshot, buffer);
+            fileSync.force(tempFile, snapshot, true);
+        }
+        Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // the rename must be durable before the log is truncated, otherwise both can be lost on a power loss
+        fileSync.forceDirectory(snapshotFile.toAbsolutePath().getParent());
+    }
+
+    private static void readSnapshot(Path snapshotFile, Consumer<String> consumer) throws IOException {
+        try (FileChannel snapshot = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            checkHeader(snapshot, SNAPSHOT_MAGIC, snapshotFile);
+            if (scan(snapshot, HEADER_LENGTH, consumer) != snapshot.size()) {
+                throw new IOException("Flight snapshot " + snapshotFile + " is corrupted");
+            }
+        }
+    }
+
+    /**
+     * Scans records of a memory-mapped file, and stops at the end of the file or at the first invalid record
+     *
+     * @return a position after the last valid record
+     */
+    private static long scan(FileChannel channel, long from, Consumer<String> consumer) throws IOException {
+        long size = channel.size();
+        long position = from;
+        long bufferStart = from;
+        MappedByteBuffer buffer = null;
+        while (position + RECORD_HEADER_LENGTH <= size) {
+            long bufferEnd = buffer == null ? position : bufferStart + buffer.limit();
+            if (buffer == null || position + RECORD_HEADER_LENGTH + MAX_FLIGHT_NUMBER_LENGTH > bufferEnd
+                    && bufferEnd < size) {
+                bufferStart = position;
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(size - position, MAP_CHUNK_SIZE));
+            }
+            int offset = (int) (position - bufferStart);
+            int length = buffer.getInt(offset);
+            int checksum = buffer.getInt(offset + Integer.BYTES);
+            if (length <= 0 || length > MAX_FLIGHT_NUMBER_LENGTH || position + RECORD_HEADER_LENGTH + length > size) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            ByteBuffer recordBuffer = buffer.duplicate();
+            recordBuffer.position(offset + RECORD_HEADER_LENGTH);
+            recordBuffer.get(bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            consumer.accept(new String(bytes, StandardCharsets.UTF_8));
+            position += RECORD_HEADER_LENGTH + length;
+        }
+        return position;
+    }
+
+    private static void writeHeader(FileChannel channel, int magic) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).putInt(magic).putInt(VERSION);
+        header.flip();
+        channel.write(header, 0);
+        channel.position(HEADER_LENGTH);
+    }
+
+    private static void checkHeader(FileChannel channel, int magic, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // read the whole header
+        }
+        header.flip();
+        if (header.remaining() < HEADER_LENGTH || header.getInt() != magic || header.getInt() != VERSION) {
+            throw new IOException("File " + file + " is not a flight log of version " + VERSION);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int required) {
+        int capacity = buffer.capacity();
+        while (capacity - buffer.position() < required) {
+            capacity *= 2;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(capacity);
+        buffer.flip();
+        return grown.put(buffer);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                // nothing to do, the log is not usable anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bobocode.oop.data;
+
+/**
+ * {@link FsyncPolicy} defines when {@link PersistentFlightDao} forces its log to the storage device. Registrations are
+ * always written to the log file before {@link PersistentFlightDao#register(String)} returns. The policy only decides
+ * whether they survive an operating system crash or a power loss, or just a crash of the application.
+ */
+public enum FsyncPolicy {
+    /**
+     * Every group commit is forced to the storage device. No acknowledged registration is lost.
+     */
+    ALWAYS,
+    /**
+     * A group commit is forced if the previous force was more than {@link FlightLog#PERIODIC_FSYNC_INTERVAL} ago, and
+     * a background thread forces written records every interval even if no more registrations arrive. Registrations
+     * acknowledged during the last interval may be lost.
+     */
+    PERIODIC,
+    /**
+     * The log is forced only on compaction and close, and otherwise it is up to the operating system.
+     */
+    NEVER
+}
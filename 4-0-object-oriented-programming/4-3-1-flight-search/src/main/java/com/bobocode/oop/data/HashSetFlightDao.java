@@ -0,0 +1,30 @@
+package com.bobocode.oop.data;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * {@link HashSetFlightDao} is the simplest {@link FlightDao}, that just uses {@link HashSet} to store flight numbers
+ * and scans all of them on every search. It has the cheapest registration and the smallest footprint, but it is not
+ * thread-safe.
+ */
+public class HashSetFlightDao implements FlightDao {
+    private final Set<String> flights = new HashSet<>();
+
+    @Override
+    public boolean register(String flightNumber) {
+        return this.flights.add(flightNumber);
+    }
+
+    @Override
+    public Set<String> findAll() {
+        return Collections.unmodifiableSet(this.flights);
+    }
+
+    @Override
+    public Stream<String> searchStream(String query) {
+        return this.flights.stream().filter(i -> i.contains(query));
+    }
+}
@@ -0,0 +1,237 @@
+package com.bobocode.oop.data;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link PersistentFlightDao} is a durable {@link FlightDao}. It stores and searches flight numbers with a delegate
+ * DAO, and also writes every registered flight number to an append-only {@link FlightLog}. All flight numbers are
+ * recovered from the log into the delegate when the DAO is created. The DAO is thread-safe if the delegate is.
+ * <p>
+ * Concurrent registrations are written to the log with a single group commit. Once the log has more records than a
+ * compaction threshold, it is compacted into a snapshot, so recovery time does not grow with the number of
+ * registrations. The DAO should be closed to release the log file.
+ * <p>
+ * A flight number is stored in the delegate before its record is committed, so it may be found by concurrent searches
+ * before {@link #register(String)} returns. If a commit fails, such flight numbers may be lost on a crash, so the DAO
+ * fails permanently: all following calls throw {@link UncheckedIOException}, and the DAO should be reopened.
+ */
+public class PersistentFlightDao implements FlightDao {
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1_000_000;
+    private static final int RECOVERY_BATCH_SIZE = 64 * 1024;
+
+    private final FlightDao delegate;
+    private final FlightLog log;
+    private final long compactionThreshold;
+    private final AtomicLong uncompactedRecords = new AtomicLong();
+    private final ReadWriteLock compactionLock = new ReentrantReadWriteLock();
+    private volatile UncheckedIOException failure;
+
+    /**
+     * Creates a DAO over {@link ConcurrentFlightDao} with {@link #DEFAULT_COMPACTION_THRESHOLD}
+     *
+     * @param logFile     a path to the log file, that is created if it does not exist
+     * @param fsyncPolicy a policy of forcing the log
+     */
+    public PersistentFlightDao(Path logFile, FsyncPolicy fsyncPolicy) {
+        this(logFile, fsyncPolicy, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Creates a DAO over {@link ConcurrentFlightDao}
+     *
+     * @param logFile             a path to the log file, that is created if it does not exist
+     * @param fsyncPolicy         a policy of forcing the log
+     * @param compactionThreshold a number of log records that triggers compaction
+     */
+    public PersistentFlightDao(Path logFile, FsyncPolicy fsyncPolicy, long compactionThreshold) {
+        this(new ConcurrentFlightDao(), logFile, fsyncPolicy, compactionThreshold);
+    }
+
+    /**
+     * Creates a DAO and recovers all flight numbers stored in the log into the delegate
+     *
+     * @param delegate            an empty DAO to store and search flight numbers
+     * @param logFile             a path to the log file, that is created if it does not exist
+     * @param fsyncPolicy         a policy of forcing the log
+     * @param compactionThreshold a number of log records that triggers compaction
+     */
+    public PersistentFlightDao(FlightDao delegate, Path logFile, FsyncPolicy fsyncPolicy, long compactionThreshold) {
+        this(delegate, logFile, fsyncPolicy, FileSync.DEFAULT, compactionThreshold);
+    }
+
+    PersistentFlightDao(FlightDao delegate, Path logFile, FsyncPolicy fsyncPolicy, FileSync fileSync,
+                        long compactionThreshold) {
+        Objects.requireNonNull(delegate);
+        Objects.requireNonNull(logFile);
+        Objects.requireNonNull(fsyncPolicy);
+        if (compactionThreshold < 1) {
+            throw new IllegalArgumentException("Compaction threshold should be positive");
+        }
+        this.delegate = delegate;
+        this.compactionThreshold = compactionThreshold;
+        List<String> recovered = new ArrayList<>();
+        this.log = FlightLog.open(logFile, fsyncPolicy, fileSync, flightNumber -> recover(recovered, flightNumber),
+                flightNumber -> {
+                    uncompactedRecords.incrementAndGet(); // only the log tail counts towards the next compaction
+                    recover(recovered, flightNumber);
+                });
+        delegate.registerAll(recovered);
+    }
+
+    private void recover(List<String> recovered, String flightNumber) {
+        recovered.add(flightNumber);
+        if (recovered.size() == RECOVERY_BATCH_SIZE) {
+            delegate.registerAll(recovered);
+            recovered.clear();
+        }
+    }
+
+    /**
+     * Stores a new flight number and writes it to the log. The method returns once the record is committed
+     * according to the {@link FsyncPolicy}.
+     *
+     * @param flightNumber a flight number to store
+     * @return {@code true} if a flight number was stored, {@code false} otherwise
+     * @throws UncheckedIOException if the record cannot be committed, or the DAO has failed before
+     */
+    @Override
+    public boolean register(String flightNumber) {
+        byte[] record = FlightLog.encode(flightNumber);
+        long sequence;
+        compactionLock.readLock().lock();
+        try {
+            checkNotFailed();
+            if (!delegate.register(flightNumber)) {
+                return false;
+            }
+            sequence = log.append(record);
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+        commit(sequence);
+        if (uncompactedRecords.incrementAndGet() >= compactionThreshold) {
+            compactIfNeeded();
+        }
+        return true;
+    }
+
+    /**
+     * Stores new flight numbers in bulk and writes them to the log with a single commit
+     *
+     * @param flightNumbers flight numbers to store
+     * @return a list of results in the iteration order of flight numbers
+     * @throws UncheckedIOException if records cannot be committed, or the DAO has failed before
+     */
+    @Override
+    public List<Boolean> registerAll(Collection<String> flightNumbers) {
+        List<String> batch = new ArrayList<>(flightNumbers);
+        List<byte[]> records = batch.stream().map(FlightLog::encode).collect(Collectors.toList());
+        List<Boolean> registered;
+        long sequence = 0;
+        int addedCount = 0;
+        compactionLock.readLock().lock();
+        try {
+            checkNotFailed();
+            registered = delegate.registerAll(batch);
+            for (int i = 0; i < registered.size(); i++) {
+                if (registered.get(i)) {
+                    sequence = log.append(records.get(i));
+                    addedCount++;
+                }
+            }
+        } finally {
+            compactionLock.readLock().unlock();
+        }
+        if (addedCount > 0) {
+            commit(sequence);
+            if (uncompactedRecords.addAndGet(addedCount) >= compactionThreshold) {
+                compactIfNeeded();
+            }
+        }
+        return registered;
+    }
+
+    private void commit(long sequence) {
+        try {
+            log.commit(sequence);
+        } catch (UncheckedIOException e) {
+            failure = e; // the delegate already has flight numbers that are not durable
+            throw e;
+        }
+    }
+
+    private void checkNotFailed() {
+        UncheckedIOException e = failure;
+        if (e != null) {
+            throw new UncheckedIOException("Flight DAO has failed to commit its log", e.getCause());
+        }
+    }
+
+    private void compactIfNeeded() {
+        compactionLock.writeLock().lock();
+        try {
+            if (uncompactedRecords.get() >= compactionThreshold) {
+                compact();
+            }
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<String> findAll() {
+        checkNotFailed();
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<String> search(String query) {
+        checkNotFailed();
+        return delegate.search(query);
+    }
+
+    @Override
+    public Stream<String> searchStream(String query) {
+        checkNotFailed();
+        return delegate.searchStream(query);
+    }
+
+    @Override
+    public List<String> searchByPrefix(String prefix) {
+        checkNotFailed();
+        return delegate.searchByPrefix(prefix);
+    }
+
+    /**
+     * Writes all flight numbers into a snapshot and empties the log. Registrations wait until compaction is finished.
+     */
+    public void compact() {
+        compactionLock.writeLock().lock();
+        try {
+            log.compact(findAll());
+            uncompactedRecords.set(0);
+        } finally {
+            compactionLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            log.close();
+        } finally {
+            delegate.close();
+        }
+    }
+}
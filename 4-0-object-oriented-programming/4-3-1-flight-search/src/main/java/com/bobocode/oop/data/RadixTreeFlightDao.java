@@ -0,0 +1,262 @@
+package com.bobocode.oop.data;
+
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link RadixTreeFlightDao} is a {@link FlightDao} that stores flight numbers in a compressed radix tree. Flight
+ * numbers that share a prefix (e.g. a carrier code) share the nodes of that prefix, and every edge holds a whole run
+ * of chars rather than a single char, so the tree takes less memory than a set of separate strings.
+ * <p>
+ * A prefix search walks down the prefix and then visits only the subtree below it, that is O(|prefix| + k) for
+ * k found flight numbers. A substring search visits the whole tree, and builds strings only for flight numbers that
+ * match. Flight numbers are returned in the natural order. The DAO is not thread-safe.
+ */
+public class RadixTreeFlightDao implements FlightDao {
+    private static final char[] EMPTY_LABEL = new char[0];
+    private static final Node[] EMPTY_CHILDREN = new Node[0];
+
+    private final Node root = new Node(EMPTY_LABEL);
+    private int size;
+
+    @Override
+    public boolean register(String flightNumber) {
+        Node node = root;
+        int position = 0;
+        while (position < flightNumber.length()) {
+            int childIndex = node.indexOf(flightNumber.charAt(position));
+            if (childIndex < 0) {
+                Node leaf = new Node(flightNumber.substring(position).toCharArray());
+                leaf.terminal = true;
+                node.insertChild(-childIndex - 1, leaf);
+                size++;
+                return true;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, flightNumber, position);
+            if (common < child.label.length) {
+                child = split(node, childIndex, common);
+            }
+            node = child;
+            position += common;
+        }
+        if (node.terminal) {
+            return false;
+        }
+        node.terminal = true;
+        size++;
+        return true;
+    }
+
+    @Override
+    public Set<String> findAll() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Traversal(root, "", null);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof String && RadixTreeFlightDao.this.contains((String) o);
+            }
+        };
+    }
+
+    @Override
+    public Stream<String> searchStream(String query) {
+        return stream(new Traversal(root, "", query));
+    }
+
+    /**
+     * Returns all stored flight numbers that start with a provided prefix in O(|prefix| + k)
+     *
+     * @param prefix a prefix to search by
+     * @return a sorted list of found flight numbers
+     */
+    @Override
+    public List<String> searchByPrefix(String prefix) {
+        List<String> found = new ArrayList<>();
+        Node node = root;
+        int nodeStart = 0;
+        int position = 0;
+        while (position < prefix.length()) {
+            int childIndex = node.indexOf(prefix.charAt(position));
+            if (childIndex < 0) {
+                return found;
+            }
+            Node child = node.children[childIndex];
+            int common = commonPrefixLength(child.label, prefix, position);
+            if (common < child.label.length && position + common < prefix.length()) {
+                return found;
+            }
+            node = child;
+            nodeStart = position;
+            position += child.label.length;
+        }
+        // the prefix may end inside the label of the found node, so its path is completed with the whole label
+        String path = prefix.substring(0, nodeStart) + new String(node.label);
+        new Traversal(node, path, null).forEachRemaining(found::add);
+        return found;
+    }
+
+    private boolean contains(String flightNumber) {
+        Node node = root;
+        int position = 0;
+        while (position < flightNumber.length()) {
+            int childIndex = node.indexOf(flightNumber.charAt(position));
+            if (childIndex < 0) {
+                return false;
+            }
+            node = node.children[childIndex];
+            if (commonPrefixLength(node.label, flightNumber, position) < node.label.length) {
+                return false;
+            }
+            position += node.label.length;
+        }
+        return node.terminal;
+    }
+
+    /**
+     * Splits a child edge in two, so that the upper part holds the first {@code length} chars of the label
+     *
+     * @return new upper node
+     */
+    private static Node split(Node parent, int childIndex, int length) {
+        Node child = parent.children[childIndex];
+        Node upper = new Node(Arrays.copyOf(child.label, length));
+        child.label = Arrays.copyOfRange(child.label, length, child.label.length);
+        upper.firsts = new char[]{child.label[0]};
+        upper.children = new Node[]{child};
+        parent.children[childIndex] = upper;
+        return upper;
+    }
+
+    private static int commonPrefixLength(char[] label, String key, int from) {
+        int max = Math.min(label.length, key.length() - from);
+        int i = 0;
+        while (i < max && label[i] == key.charAt(from + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static Stream<String> stream(Iterator<String> iterator) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    private static class Node {
+        private char[] label;
+        private char[] firsts = EMPTY_LABEL;
+        private Node[] children = EMPTY_CHILDREN;
+        private boolean terminal;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        /**
+         * Finds a child by the first char of its label
+         *
+         * @return an index of the child, or {@code -(insertion point) - 1} if there is no such child
+         */
+        int indexOf(char first) {
+            return Arrays.binarySearch(firsts, first);
+        }
+
+        void insertChild(int index, Node child) {
+            char[] newFirsts = new char[firsts.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newFirsts[index] = child.label[0];
+            newChildren[index] = child;
+            System.arraycopy(firsts, index, newFirsts, index + 1, firsts.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+    }
+
+    /**
+     * A depth-first traversal of a subtree that builds flight numbers in a single reused buffer, and turns into
+     * strings only the ones that contain a query
+     */
+    private static class Traversal implements Iterator<String> {
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private final StringBuilder path;
+        private final String query;
+        private String next;
+
+        Traversal(Node start, String startPath, String query) {
+            this.path = new StringBuilder(startPath);
+            this.query = query;
+            this.stack.push(new Frame(start, path.length()));
+            this.next = advance();
+        }
+
+        private String advance() {
+            while (!stack.isEmpty()) {
+                Frame frame = stack.peek();
+                path.setLength(frame.pathLength);
+                if (!frame.visited) {
+                    frame.visited = true;
+                    if (frame.node.terminal && (query == null || path.indexOf(query) >= 0)) {
+                        return path.toString();
+                    }
+                } else if (frame.childIndex < frame.node.children.length) {
+                    Node child = frame.node.children[frame.childIndex++];
+                    path.append(child.label);
+                    stack.push(new Frame(child, path.length()));
+                } else {
+                    stack.pop();
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            String current = next;
+            next = advance();
+            return current;
+        }
+    }
+
+    private static class Frame {
+        private final Node node;
+        private final int pathLength;
+        private int childIndex;
+        private boolean visited;
+
+        Frame(Node node, int pathLength) {
+            this.node = node;
+            this.pathLength = pathLength;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.bobocode.oop.data;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link SortedFlightDao} is a thread-safe {@link FlightDao} that keeps flight numbers sorted in a skip list. Found
+ * flight numbers are returned in the natural order, so sorted pages are cheaper to build.
+ */
+public class SortedFlightDao implements FlightDao {
+    private final NavigableSet<String> flights = new ConcurrentSkipListSet<>();
+
+    @Override
+    public boolean register(String flightNumber) {
+        return this.flights.add(flightNumber);
+    }
+
+    @Override
+    public Set<String> findAll() {
+        return Collections.unmodifiableNavigableSet(this.flights);
+    }
+
+    @Override
+    public Stream<String> searchStream(String query) {
+        return this.flights.stream().filter(i -> i.contains(query));
+    }
+
+    @Override
+    public List<String> searchByPrefix(String prefix) {
+        return this.flights.tailSet(prefix, true).stream()
+                .takeWhile(i -> i.startsWith(prefix))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,89 @@
+package com.bobocode.oop.data;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link TrigramIndex} is an inverted index that maps every three-character substring (trigram) of a flight number to
+ * the set of flight numbers that contain it. Any flight number that contains a query of three or more characters
+ * contains all its trigrams, so the smallest posting set of query trigrams is a complete set of candidates. Candidates
+ * still have to be verified, since having all trigrams does not guarantee containing the whole query.
+ * <p>
+ * The index is backed by concurrent maps and sets, so it can be updated and queried from many threads at once.
+ */
+class TrigramIndex {
+    static final int GRAM_LENGTH = 3;
+
+    private final ConcurrentMap<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a flight number to the index
+     *
+     * @param flightNumber a flight number to index
+     */
+    void add(String flightNumber) {
+        for (int i = 0; i + GRAM_LENGTH <= flightNumber.length(); i++) {
+            postings.computeIfAbsent(flightNumber.substring(i, i + GRAM_LENGTH), gram -> ConcurrentHashMap.newKeySet())
+                    .add(flightNumber);
+        }
+    }
+
+    /**
+     * Adds a batch of flight numbers to the index. Flight numbers are grouped by trigram first, so every posting set
+     * is looked up and sized once per batch rather than once per flight number.
+     *
+     * @param flightNumbers flight numbers to index
+     * @param parallel      {@code true} to group and merge trigrams in parallel
+     */
+    void addAll(Collection<String> flightNumbers, boolean parallel) {
+        Stream<String> flightStream = parallel ? flightNumbers.parallelStream() : flightNumbers.stream();
+        Map<String, List<String>> grouped = flightStream
+                .flatMap(flightNumber -> grams(flightNumber)
+                        .map(gram -> new AbstractMap.SimpleImmutableEntry<>(gram, flightNumber)))
+                .collect(Collectors.groupingByConcurrent(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        Stream<Map.Entry<String, List<String>>> postingStream = parallel
+                ? grouped.entrySet().parallelStream()
+                : grouped.entrySet().stream();
+        postingStream.forEach(entry -> postings
+                .computeIfAbsent(entry.getKey(), gram -> ConcurrentHashMap.newKeySet(entry.getValue().size()))
+                .addAll(entry.getValue()));
+    }
+
+    private static Stream<String> grams(String flightNumber) {
+        return IntStream.rangeClosed(0, flightNumber.length() - GRAM_LENGTH)
+                .mapToObj(i -> flightNumber.substring(i, i + GRAM_LENGTH));
+    }
+
+    /**
+     * Returns candidate flight numbers that may contain the query
+     *
+     * @param query a search query of at least {@link #GRAM_LENGTH} characters
+     * @return a set of candidates, that is a superset of all flight numbers containing the query
+     */
+    Set<String> candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            throw new IllegalArgumentException("Query is too short for trigram index");
+        }
+        Set<String> smallest = null;
+        for (int i = 0; i + GRAM_LENGTH <= query.length(); i++) {
+            Set<String> posting = postings.get(query.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+        return smallest;
+    }
+}
@@ -0,0 +1,35 @@
+package com.bobocode.oop.factory;
+
+import com.bobocode.oop.data.ConcurrentFlightDao;
+import com.bobocode.oop.data.HashSetFlightDao;
+import com.bobocode.oop.data.PersistentFlightDao;
+import com.bobocode.oop.data.RadixTreeFlightDao;
+import com.bobocode.oop.data.SortedFlightDao;
+
+/**
+ * {@link FlightDaoBackend} lists storage backends that {@link FlightServiceFactory} can build a service over.
+ * {@link #HASH_SET} and {@link #RADIX_TREE} are not thread-safe, so a service over them may only be used by a single
+ * thread at a time. All other backends can be shared by many threads.
+ */
+public enum FlightDaoBackend {
+    /**
+     * {@link HashSetFlightDao}, for single-threaded use only
+     */
+    HASH_SET,
+    /**
+     * {@link SortedFlightDao}
+     */
+    SORTED,
+    /**
+     * {@link ConcurrentFlightDao}
+     */
+    CONCURRENT,
+    /**
+     * {@link RadixTreeFlightDao}, for single-threaded use only
+     */
+    RADIX_TREE,
+    /**
+     * {@link PersistentFlightDao} over {@link ConcurrentFlightDao}
+     */
+    PERSISTENT
+}
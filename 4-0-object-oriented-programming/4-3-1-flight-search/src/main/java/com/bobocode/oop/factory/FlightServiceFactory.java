@@ -1,19 +1,113 @@
 package com.bobocode.oop.factory;
 
+import com.bobocode.oop.data.ConcurrentFlightDao;
+import com.bobocode.oop.data.FlightDao;
+import com.bobocode.oop.data.FsyncPolicy;
+import com.bobocode.oop.data.HashSetFlightDao;
+import com.bobocode.oop.data.PersistentFlightDao;
+import com.bobocode.oop.data.RadixTreeFlightDao;
+import com.bobocode.oop.data.SortedFlightDao;
 import com.bobocode.oop.service.FlightService;
 import com.bobocode.util.ExerciseNotCompletedException;
 
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Properties;
+
 /**
  * {@link FlightServiceFactory} is used to create an instance of {@link FlightService}
+ * <p>
+ * A storage backend is chosen by configuration properties:
+ * <ul>
+ *     <li>{@value #BACKEND_PROPERTY} is a name of {@link FlightDaoBackend}, e.g. {@code hash-set} or
+ *     {@code CONCURRENT}, {@link FlightDaoBackend#CONCURRENT} by default</li>
+ *     <li>{@value #LOG_FILE_PROPERTY} is a path to the log file, required by {@link FlightDaoBackend#PERSISTENT}</li>
+ *     <li>{@value #FSYNC_POLICY_PROPERTY} is a name of {@link FsyncPolicy}, {@link FsyncPolicy#PERIODIC} by
+ *     default</li>
+ * </ul>
+ * Services are thread-safe only if their backend is. Backends that are not (see {@link FlightDaoBackend}) are not
+ * wrapped in any lock, since a lazy search stream could not be guarded anyway, so such a service must be confined to a
+ * single thread.
  */
 public class FlightServiceFactory {
+    public static final String BACKEND_PROPERTY = "flight.dao.backend";
+    public static final String LOG_FILE_PROPERTY = "flight.dao.log-file";
+    public static final String FSYNC_POLICY_PROPERTY = "flight.dao.fsync-policy";
 
     /**
-     * Create a new instance of {@link FlightService}
+     * Create a new instance of {@link FlightService} configured by system properties
      *
      * @return FlightService
      */
     public FlightService createFlightService() {
-        return new FlightService();
+        return createFlightService(System.getProperties());
+    }
+
+    /**
+     * Create a new instance of {@link FlightService} over a backend chosen by configuration properties
+     *
+     * @param configuration configuration properties
+     * @return FlightService
+     */
+    public FlightService createFlightService(Properties configuration) {
+        return new FlightService(createFlightDao(configuration));
+    }
+
+    /**
+     * Create a new instance of {@link FlightService} over a given backend
+     *
+     * @param backend       a storage backend
+     * @param configuration configuration properties of the backend
+     * @return FlightService
+     */
+    public FlightService createFlightService(FlightDaoBackend backend, Properties configuration) {
+        return new FlightService(createFlightDao(backend, configuration));
+    }
+
+    /**
+     * Create a new instance of {@link FlightService} that stores flight numbers in a provided {@link FlightDao}
+     *
+     * @param flightDao a DAO to store flight numbers
+     * @return FlightService
+     */
+    public FlightService createFlightService(FlightDao flightDao) {
+        return new FlightService(flightDao);
+    }
+
+    private FlightDao createFlightDao(Properties configuration) {
+        String backend = configuration.getProperty(BACKEND_PROPERTY, FlightDaoBackend.CONCURRENT.name());
+        return createFlightDao(parse(FlightDaoBackend.class, BACKEND_PROPERTY, backend), configuration);
+    }
+
+    private FlightDao createFlightDao(FlightDaoBackend backend, Properties configuration) {
+        switch (backend) {
+            case HASH_SET:
+                return new HashSetFlightDao();
+            case SORTED:
+                return new SortedFlightDao();
+            case CONCURRENT:
+                return new ConcurrentFlightDao();
+            case RADIX_TREE:
+                return new RadixTreeFlightDao();
+            case PERSISTENT:
+                String logFile = configuration.getProperty(LOG_FILE_PROPERTY);
+                if (logFile == null) {
+                    throw new IllegalArgumentException("Property " + LOG_FILE_PROPERTY + " is required by "
+                            + FlightDaoBackend.PERSISTENT + " backend");
+                }
+                String fsyncPolicy = configuration.getProperty(FSYNC_POLICY_PROPERTY, FsyncPolicy.PERIODIC.name());
+                return new PersistentFlightDao(Paths.get(logFile),
+                        parse(FsyncPolicy.class, FSYNC_POLICY_PROPERTY, fsyncPolicy));
+            default:
+                throw new IllegalArgumentException("Unknown flight DAO backend " + backend);
+        }
+    }
+
+    private static <E extends Enum<E>> E parse(Class<E> type, String property, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value of property " + property + ": " + value, e);
+        }
     }
 }
@@ -0,0 +1,40 @@
+package com.bobocode.oop.service;
+
+import java.util.List;
+
+/**
+ * {@link FlightPage} is a single page of flight numbers found by
+ * {@link FlightService#searchFlights(String, int, String)}. Flight numbers of a page are sorted, and the last of them
+ * is a cursor of the next page.
+ */
+public class FlightPage {
+    private final List<String> flights;
+    private final String nextCursor;
+
+    FlightPage(List<String> flights, String nextCursor) {
+        this.flights = flights;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Returns flight numbers of the page
+     *
+     * @return an unmodifiable sorted list of flight numbers
+     */
+    public List<String> getFlights() {
+        return flights;
+    }
+
+    /**
+     * Returns a cursor to request the next page with
+     *
+     * @return a cursor of the next page, or {@code null} if this page is the last one
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -1,20 +1,50 @@
 package com.bobocode.oop.service;
 
+import com.bobocode.oop.data.ConcurrentFlightDao;
 import com.bobocode.oop.data.FlightDao;
 import com.bobocode.util.ExerciseNotCompletedException;
 
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
 
 /**
  * {@link FlightService} provides an API that allows to manage flight numbers
+ * <p>
+ * Search results are kept in a bounded LRU cache. Registering a flight number drops only cached results of queries
+ * that match it.
  */
-public class FlightService {
+public class FlightService implements Closeable {
+    public static final int DEFAULT_CACHE_CAPACITY = 1024;
 
     private FlightDao flightDao;
+    private SearchResultCache cache;
 
     public FlightService() {
-        this.flightDao = new FlightDao();
+        this(new ConcurrentFlightDao());
+    }
+
+    public FlightService(FlightDao flightDao) {
+        this(flightDao, DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Creates a service with a search result cache of a given capacity
+     *
+     * @param flightDao     a DAO to store flight numbers
+     * @param cacheCapacity max number of cached queries, or {@code 0} to disable caching
+     */
+    public FlightService(FlightDao flightDao, int cacheCapacity) {
+        if (cacheCapacity < 0) {
+            throw new IllegalArgumentException("Cache capacity should not be negative");
+        }
+        this.flightDao = flightDao;
+        this.cache = new SearchResultCache(cacheCapacity);
     }
 
     /**
@@ -24,16 +54,123 @@ public class FlightService {
      * @return {@code true} if a flight number was added, {@code false} otherwise
      */
     public boolean registerFlight(String flightNumber) {
-        return flightDao.register(flightNumber);
+        if (flightDao.register(flightNumber)) {
+            cache.invalidate(flightNumber);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds new flight numbers in bulk. This is much faster than adding them one by one, since the search index and
+     * the result cache are updated once per batch, and large batches are stored in parallel.
+     *
+     * @param flightNumbers flight numbers to add
+     * @return a list of results in the iteration order of flight numbers, where every element is {@code true} if a
+     * flight number was added, and {@code false} otherwise
+     */
+    public List<Boolean> registerFlights(Collection<String> flightNumbers) {
+        List<String> batch = new ArrayList<>(flightNumbers);
+        List<Boolean> registered = flightDao.registerAll(batch);
+        List<String> added = new ArrayList<>();
+        for (int i = 0; i < registered.size(); i++) {
+            if (registered.get(i)) {
+                added.add(batch.get(i));
+            }
+        }
+        if (!added.isEmpty()) {
+            cache.invalidateAll(added);
+        }
+        return registered;
     }
 
     /**
      * Returns all flight numbers that contains a provided key.
      *
      * @param query a search query
-     * @return a list of found flight numbers
+     * @return an unmodifiable list of found flight numbers
      */
     public List<String> searchFlights(String query) {
-        return flightDao.findAll().stream().filter(i -> i.contains(query)).collect(Collectors.toList());
+        List<String> cached = cache.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        long version = cache.version();
+        List<String> found = Collections.unmodifiableList(flightDao.search(query));
+        cache.put(query, found, version);
+        return found;
+    }
+
+    /**
+     * Returns all flight numbers that start with a provided prefix, e.g. all flights of a carrier. Results are not
+     * cached.
+     *
+     * @param prefix a prefix to search by
+     * @return a sorted list of found flight numbers
+     */
+    public List<String> searchFlightsByPrefix(String prefix) {
+        return flightDao.searchByPrefix(prefix);
+    }
+
+    /**
+     * Returns a page of flight numbers that contain a provided key. Pages are sorted, and only
+     * {@code limit + 1} flight numbers are kept in memory while searching, no matter how many flights match.
+     *
+     * @param query  a search query
+     * @param limit  max number of flight numbers on the page
+     * @param cursor a cursor returned by {@link FlightPage#getNextCursor()}, or {@code null} for the first page
+     * @return a page of found flight numbers
+     */
+    public FlightPage searchFlights(String query, int limit, String cursor) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit should be positive");
+        }
+        PriorityQueue<String> smallest = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        flightDao.searchStream(query)
+                .filter(flightNumber -> cursor == null || flightNumber.compareTo(cursor) > 0)
+                .forEach(flightNumber -> {
+                    if (smallest.size() <= limit) {
+                        smallest.add(flightNumber);
+                    } else if (flightNumber.compareTo(smallest.peek()) < 0) {
+                        smallest.poll();
+                        smallest.add(flightNumber);
+                    }
+                });
+        boolean hasNext = smallest.size() > limit;
+        if (hasNext) {
+            smallest.poll();
+        }
+        List<String> flights = new ArrayList<>(smallest);
+        flights.sort(Comparator.naturalOrder());
+        String nextCursor = hasNext ? flights.get(flights.size() - 1) : null;
+        return new FlightPage(Collections.unmodifiableList(flights), nextCursor);
+    }
+
+    /**
+     * Returns a lazy stream of flight numbers that contain a provided key. Results are neither cached nor sorted,
+     * and the search stops as soon as the stream is short-circuited, e.g. by {@link Stream#limit(long)}.
+     *
+     * @param query a search query
+     * @return a stream of found flight numbers
+     */
+    public Stream<String> streamFlights(String query) {
+        return flightDao.searchStream(query);
+    }
+
+    /**
+     * Returns metrics of the search result cache
+     *
+     * @return a snapshot of cache metrics
+     */
+    public SearchCacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Closes the underlying {@link FlightDao}
+     */
+    @Override
+    public void close() {
+        flightDao.close();
     }
 }
@@ -0,0 +1,56 @@
+package com.bobocode.oop.service;
+
+/**
+ * {@link SearchCacheStats} is an immutable snapshot of metrics of the {@link FlightService} search result cache
+ */
+public class SearchCacheStats {
+    private final int size;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long invalidationCount;
+
+    SearchCacheStats(int size, long hitCount, long missCount, long evictionCount, long invalidationCount) {
+        this.size = size;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.invalidationCount = invalidationCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * Returns a share of searches that were answered from the cache
+     *
+     * @return a hit rate from 0 to 1, or {@code 0} if there were no searches
+     */
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchCacheStats{size=" + size + ", hitCount=" + hitCount + ", missCount=" + missCount
+                + ", evictionCount=" + evictionCount + ", invalidationCount=" + invalidationCount + "}";
+    }
+}
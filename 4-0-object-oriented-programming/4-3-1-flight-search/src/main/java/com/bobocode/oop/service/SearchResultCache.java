@@ -0,0 +1,94 @@
+package com.bobocode.oop.service;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link SearchResultCache} is a bounded LRU cache of search results keyed by query. It is used by
+ * {@link FlightService} and is guarded by its own monitor, so it can be used from many threads.
+ * <p>
+ * A result computed while a flight was being registered may miss that flight. To never cache such a result, every
+ * invalidation increments a version, and a result is stored only if the version did not change since the search
+ * started.
+ */
+class SearchResultCache {
+    private final int capacity;
+    private final Map<String, List<String>> results;
+    private long version;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long invalidationCount;
+
+    SearchResultCache(int capacity) {
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                if (size() > SearchResultCache.this.capacity) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    synchronized List<String> get(String query) {
+        List<String> result = results.get(query);
+        if (result != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return result;
+    }
+
+    synchronized long version() {
+        return version;
+    }
+
+    synchronized void put(String query, List<String> result, long searchVersion) {
+        if (capacity > 0 && searchVersion == version) {
+            results.put(query, result);
+        }
+    }
+
+    /**
+     * Drops cached results of all queries that match a new flight number
+     *
+     * @param flightNumber a registered flight number
+     */
+    synchronized void invalidate(String flightNumber) {
+        version++;
+        for (Iterator<String> queries = results.keySet().iterator(); queries.hasNext(); ) {
+            if (flightNumber.contains(queries.next())) {
+                queries.remove();
+                invalidationCount++;
+            }
+        }
+    }
+
+    /**
+     * Drops cached results of all queries that match any of new flight numbers. If there are more new flight numbers
+     * than cached queries, checking every pair costs more than recomputing, so all results are dropped.
+     *
+     * @param flightNumbers registered flight numbers
+     */
+    synchronized void invalidateAll(Collection<String> flightNumbers) {
+        if (flightNumbers.size() <= results.size()) {
+            flightNumbers.forEach(this::invalidate);
+        } else {
+            version++;
+            invalidationCount += results.size();
+            results.clear();
+        }
+    }
+
+    synchronized SearchCacheStats stats() {
+        return new SearchCacheStats(results.size(), hitCount, missCount, evictionCount, invalidationCount);
+    }
+}
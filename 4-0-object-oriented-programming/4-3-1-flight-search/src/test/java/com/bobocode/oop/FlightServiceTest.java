@@ -1,10 +1,35 @@
 package com.bobocode.oop;
 
+import com.bobocode.oop.data.ConcurrentFlightDao;
+import com.bobocode.oop.data.FlightDao;
+import com.bobocode.oop.data.FsyncPolicy;
+import com.bobocode.oop.data.PersistentFlightDao;
+import com.bobocode.oop.factory.FlightDaoBackend;
 import com.bobocode.oop.factory.FlightServiceFactory;
+import com.bobocode.oop.service.FlightPage;
 import com.bobocode.oop.service.FlightService;
+import com.bobocode.oop.service.SearchCacheStats;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -62,4 +87,385 @@ public class FlightServiceTest {
         assertTrue(foundFlights.contains("RLR198"));
         assertEquals(3, foundFlights.size());
     }
+
+    @Test
+    public void testSearchFlightsByIndexedQuery() {
+        flightService.registerFlight("PS7012");
+        flightService.registerFlight("LH7012");
+        flightService.registerFlight("PS1170");
+        flightService.registerFlight("PSX012");
+
+        List<String> foundFlights = flightService.searchFlights("S701");
+
+        assertEquals(List.of("PS7012"), foundFlights);
+    }
+
+    @Test
+    public void testSearchFlightsVerifiesIndexCandidates() {
+        flightService.registerFlight("ABCXBCD");
+
+        List<String> foundFlights = flightService.searchFlights("ABCD");
+
+        assertTrue(foundFlights.isEmpty());
+    }
+
+    @Test
+    public void testRegisterFlightsConcurrently() throws Exception {
+        int threadCount = 4;
+        int flightCount = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                tasks.add(() -> {
+                    int registered = 0;
+                    for (int i = 0; i < flightCount; i++) {
+                        if (flightService.registerFlight("CC" + i)) {
+                            registered++;
+                        }
+                        flightService.searchFlights("CC" + i);
+                    }
+                    return registered;
+                });
+            }
+            int totalRegistered = 0;
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                totalRegistered += result.get();
+            }
+
+            assertEquals(flightCount, totalRegistered);
+            assertEquals(List.of("CC999"), flightService.searchFlights("CC999"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testPersistentFlightsAreRecovered(@TempDir Path dir) {
+        Path logFile = dir.resolve("flights.log");
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.ALWAYS)) {
+            FlightService persistentFlightService = new FlightServiceFactory().createFlightService(flightDao);
+            persistentFlightService.registerFlight("PS7012");
+            persistentFlightService.registerFlight("LH7012");
+            persistentFlightService.registerFlight("PS7012");
+        }
+
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.ALWAYS)) {
+            FlightService persistentFlightService = new FlightServiceFactory().createFlightService(flightDao);
+
+            assertEquals(List.of("LH7012"), persistentFlightService.searchFlights("LH"));
+            assertFalse(persistentFlightService.registerFlight("PS7012"));
+            assertEquals(2, flightDao.findAll().size());
+        }
+    }
+
+    @Test
+    public void testPersistentFlightsAreRecoveredAfterCompaction(@TempDir Path dir) {
+        Path logFile = dir.resolve("flights.log");
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.NEVER, 10)) {
+            for (int i = 0; i < 25; i++) {
+                flightDao.register("CP" + i);
+            }
+        }
+
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.NEVER, 10)) {
+            assertEquals(25, flightDao.findAll().size());
+            assertTrue(Files.exists(dir.resolve("flights.log.snapshot")));
+        }
+    }
+
+    @Test
+    public void testReopenedSnapshotDoesNotTriggerCompaction(@TempDir Path dir) throws Exception {
+        Path logFile = dir.resolve("flights.log");
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.NEVER, 10)) {
+            for (int i = 0; i < 25; i++) {
+                flightDao.register("CP" + i);
+            }
+        }
+        long snapshotSize = Files.size(dir.resolve("flights.log.snapshot"));
+        long logSize = Files.size(logFile);
+
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.NEVER, 10)) {
+            flightDao.register("CP25");
+        }
+
+        assertEquals(snapshotSize, Files.size(dir.resolve("flights.log.snapshot")));
+        assertTrue(Files.size(logFile) > logSize);
+    }
+
+    @Test
+    public void testPersistentFlightLogTornTailIsTruncated(@TempDir Path dir) throws Exception {
+        Path logFile = dir.resolve("flights.log");
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.PERIODIC)) {
+            flightDao.register("OL234");
+            flightDao.register("KM23234");
+        }
+        try (FileChannel channel = FileChannel.open(logFile, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.PERIODIC)) {
+            assertEquals(List.of("OL234"), List.copyOf(flightDao.findAll()));
+            flightDao.register("BRT14");
+        }
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.PERIODIC)) {
+            assertEquals(List.of("BRT14", "OL234"),
+                    flightDao.findAll().stream().sorted().collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testSearchResultsAreCached() {
+        flightService.registerFlight("PS7012");
+
+        List<String> firstFoundFlights = flightService.searchFlights("PS");
+        List<String> secondFoundFlights = flightService.searchFlights("PS");
+
+        assertSame(firstFoundFlights, secondFoundFlights);
+        SearchCacheStats stats = flightService.getCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    public void testRegisterFlightInvalidatesOnlyMatchingQueries() {
+        flightService.registerFlight("PS7012");
+        flightService.registerFlight("LH7012");
+        flightService.searchFlights("PS");
+        flightService.searchFlights("LH");
+
+        flightService.registerFlight("PS1170");
+
+        assertEquals(1, flightService.getCacheStats().getInvalidationCount());
+        assertEquals(List.of("LH7012"), flightService.searchFlights("LH"));
+        assertEquals(2, flightService.searchFlights("PS").size());
+        assertEquals(1, flightService.getCacheStats().getHitCount());
+    }
+
+    @Test
+    public void testSearchResultCacheEvictsLeastRecentlyUsedQuery() {
+        FlightService smallCacheFlightService = new FlightService(new ConcurrentFlightDao(), 2);
+        smallCacheFlightService.registerFlight("PS7012");
+        smallCacheFlightService.searchFlights("PS");
+        smallCacheFlightService.searchFlights("70");
+        smallCacheFlightService.searchFlights("PS");
+
+        smallCacheFlightService.searchFlights("12");
+        smallCacheFlightService.searchFlights("PS");
+
+        SearchCacheStats stats = smallCacheFlightService.getCacheStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(2, stats.getHitCount());
+    }
+
+    @Test
+    public void testSearchFlightsByPages() {
+        for (int i = 0; i < 25; i++) {
+            flightService.registerFlight(String.format("PG%03d", i));
+        }
+        flightService.registerFlight("XX001");
+
+        List<String> foundFlights = new ArrayList<>();
+        int pageCount = 0;
+        String cursor = null;
+        do {
+            FlightPage page = flightService.searchFlights("PG", 10, cursor);
+            assertTrue(page.getFlights().size() <= 10);
+            foundFlights.addAll(page.getFlights());
+            cursor = page.getNextCursor();
+            pageCount++;
+        } while (cursor != null);
+
+        assertEquals(3, pageCount);
+        assertEquals(25, foundFlights.size());
+        assertEquals(foundFlights.stream().sorted().collect(Collectors.toList()), foundFlights);
+        assertEquals("PG000", foundFlights.get(0));
+    }
+
+    @Test
+    public void testSearchFlightsPageOfExactLimitIsLast() {
+        flightService.registerFlight("PG001");
+        flightService.registerFlight("PG002");
+
+        FlightPage page = flightService.searchFlights("PG", 2, null);
+
+        assertEquals(List.of("PG001", "PG002"), page.getFlights());
+        assertFalse(page.hasNext());
+    }
+
+    @Test
+    public void testStreamFlightsStopsScanningAtLimit() {
+        AtomicInteger scannedCount = new AtomicInteger();
+        ConcurrentFlightDao countingFlightDao = new ConcurrentFlightDao() {
+            @Override
+            public Stream<String> searchStream(String query) {
+                return super.searchStream(query).peek(flightNumber -> scannedCount.incrementAndGet());
+            }
+        };
+        FlightService countingFlightService = new FlightServiceFactory().createFlightService(countingFlightDao);
+        for (int i = 0; i < 1_000; i++) {
+            countingFlightService.registerFlight("ST" + i);
+        }
+
+        List<String> foundFlights = countingFlightService.streamFlights("ST").limit(5).collect(Collectors.toList());
+
+        assertEquals(5, foundFlights.size());
+        assertEquals(5, scannedCount.get());
+    }
+
+    @Test
+    public void testPagesAndStreamsDoNotMaterializeSearchResults() {
+        AtomicInteger producedCount = new AtomicInteger();
+        FlightDao streamingOnlyFlightDao = new FlightDao() {
+            @Override
+            public boolean register(String flightNumber) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Set<String> findAll() {
+                throw new UnsupportedOperationException("All flights should not be materialized");
+            }
+
+            @Override
+            public List<String> search(String query) {
+                throw new UnsupportedOperationException("Search results should not be materialized");
+            }
+
+            @Override
+            public Stream<String> searchStream(String query) {
+                return IntStream.range(0, 100_000)
+                        .mapToObj(i -> String.format("FL%05d", 99_999 - i))
+                        .peek(flightNumber -> producedCount.incrementAndGet())
+                        .filter(flightNumber -> flightNumber.contains(query));
+            }
+        };
+        FlightService streamingFlightService = new FlightServiceFactory().createFlightService(streamingOnlyFlightDao);
+
+        FlightPage page = streamingFlightService.searchFlights("FL", 10, "FL00009");
+        List<String> streamedFlights = streamingFlightService.streamFlights("FL").limit(5).collect(Collectors.toList());
+
+        assertEquals(IntStream.range(10, 20).mapToObj(i -> String.format("FL%05d", i)).collect(Collectors.toList()),
+                page.getFlights());
+        assertEquals("FL00019", page.getNextCursor());
+        assertEquals(5, streamedFlights.size());
+        assertEquals(100_000 + 5, producedCount.get());
+    }
+
+    @Test
+    public void testRegisterFlightsReturnsPerItemResults() {
+        flightService.registerFlight("OL234");
+
+        List<Boolean> registered = flightService.registerFlights(List.of("KM23234", "OL234", "LTE114", "KM23234"));
+
+        assertEquals(List.of(true, false, true, false), registered);
+        assertEquals(List.of("LTE114"), flightService.searchFlights("E11"));
+    }
+
+    @Test
+    public void testRegisterFlightsInParallel() {
+        List<String> flightNumbers = new ArrayList<>();
+        for (int i = 0; i < ConcurrentFlightDao.PARALLEL_INGEST_THRESHOLD * 2; i++) {
+            flightNumbers.add("BK" + i);
+        }
+        flightNumbers.add("BK0");
+        flightService.searchFlights("BK1999");
+
+        List<Boolean> registered = flightService.registerFlights(flightNumbers);
+
+        assertEquals(flightNumbers.size(), registered.size());
+        long registeredCount = registered.stream().filter(Boolean::booleanValue).count();
+        assertEquals(ConcurrentFlightDao.PARALLEL_INGEST_THRESHOLD * 2, registeredCount);
+        assertFalse(registered.get(registered.size() - 1));
+        assertEquals(11, flightService.searchFlights("BK1999").size());
+    }
+
+    @Test
+    public void testRegisterPersistentFlightsInBulk(@TempDir Path dir) {
+        Path logFile = dir.resolve("flights.log");
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.ALWAYS)) {
+            FlightService persistentFlightService = new FlightServiceFactory().createFlightService(flightDao);
+            persistentFlightService.registerFlight("OL234");
+
+            List<Boolean> registered = persistentFlightService.registerFlights(List.of("OL234", "LTE114", "BRT14"));
+
+            assertEquals(List.of(false, true, true), registered);
+        }
+
+        try (PersistentFlightDao flightDao = new PersistentFlightDao(logFile, FsyncPolicy.ALWAYS)) {
+            assertEquals(3, flightDao.findAll().size());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(FlightDaoBackend.class)
+    public void testSameWorkloadOnEveryBackend(FlightDaoBackend backend, @TempDir Path dir) {
+        Properties configuration = new Properties();
+        configuration.setProperty(FlightServiceFactory.LOG_FILE_PROPERTY, dir.resolve("flights.log").toString());
+        FlightServiceFactory factory = new FlightServiceFactory();
+        try (FlightService backendFlightService = factory.createFlightService(backend, configuration)) {
+            List<String> flightNumbers = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                assertTrue(backendFlightService.registerFlight("WL" + i));
+                flightNumbers.add("WB" + i);
+            }
+            assertFalse(backendFlightService.registerFlight("WL0"));
+            assertEquals(500, backendFlightService.registerFlights(flightNumbers).stream()
+                    .filter(Boolean::booleanValue)
+                    .count());
+
+            assertEquals(List.of("WL499"), backendFlightService.searchFlights("L499"));
+            assertEquals(111, backendFlightService.searchFlights("WB1").size());
+            assertEquals(List.of("WB1", "WB10", "WB100"),
+                    backendFlightService.searchFlights("WB1", 3, null).getFlights());
+            assertEquals(5, backendFlightService.streamFlights("W").limit(5).count());
+            assertEquals(List.of("WL4", "WL40", "WL400"),
+                    backendFlightService.searchFlightsByPrefix("WL4").subList(0, 3));
+            assertEquals(111, backendFlightService.searchFlightsByPrefix("WB1").size());
+            assertTrue(backendFlightService.searchFlightsByPrefix("WX").isEmpty());
+        }
+    }
+
+    @Test
+    public void testBackendIsChosenByConfiguration() {
+        Properties configuration = new Properties();
+        configuration.setProperty(FlightServiceFactory.BACKEND_PROPERTY, "hash-set");
+        FlightService configuredFlightService = new FlightServiceFactory().createFlightService(configuration);
+        configuredFlightService.registerFlight("OL234");
+
+        assertEquals(List.of("OL234"), configuredFlightService.searchFlights("L23"));
+    }
+
+    @Test
+    public void testInvalidBackendConfiguration() {
+        Properties unknownBackend = new Properties();
+        unknownBackend.setProperty(FlightServiceFactory.BACKEND_PROPERTY, "tape");
+        Properties persistentWithoutLogFile = new Properties();
+        persistentWithoutLogFile.setProperty(FlightServiceFactory.BACKEND_PROPERTY, "persistent");
+
+        FlightServiceFactory factory = new FlightServiceFactory();
+
+        assertThrows(IllegalArgumentException.class, () -> factory.createFlightService(unknownBackend));
+        assertThrows(IllegalArgumentException.class, () -> factory.createFlightService(persistentWithoutLogFile));
+    }
+
+    @Test
+    public void testRadixTreeSharesPrefixesOfFlights() {
+        Properties configuration = new Properties();
+        configuration.setProperty(FlightServiceFactory.BACKEND_PROPERTY, "radix-tree");
+        FlightService radixTreeFlightService = new FlightServiceFactory().createFlightService(configuration);
+        for (String flightNumber : List.of("PS7012", "PS70", "PS7", "PS1170", "P", "LH7012", "PSX012")) {
+            assertTrue(radixTreeFlightService.registerFlight(flightNumber));
+        }
+        assertFalse(radixTreeFlightService.registerFlight("PS70"));
+
+        assertEquals(List.of("PS7", "PS70", "PS7012"), radixTreeFlightService.searchFlightsByPrefix("PS7"));
+        assertEquals(List.of("PS7012", "PSX012"), radixTreeFlightService.searchFlightsByPrefix("PS").subList(3, 5));
+        assertEquals(List.of("PS7012"), radixTreeFlightService.searchFlightsByPrefix("PS701"));
+        assertEquals(List.of("P", "PS1170", "PS7", "PS70", "PS7012", "PSX012"),
+                radixTreeFlightService.searchFlightsByPrefix("P"));
+        assertEquals(List.of("LH7012", "PS7012", "PSX012"), radixTreeFlightService.searchFlights("012"));
+        assertTrue(radixTreeFlightService.searchFlightsByPrefix("PS8").isEmpty());
+    }
 }
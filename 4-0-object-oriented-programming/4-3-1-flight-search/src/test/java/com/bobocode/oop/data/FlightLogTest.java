@@ -0,0 +1,99 @@
+package com.bobocode.oop.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightLogTest {
+
+    @Test
+    public void testCompactionForcesDirectoryBeforeTruncatingLog(@TempDir Path dir) throws Exception {
+        Path logFile = dir.resolve("flights.log");
+        Path snapshotFile = dir.resolve("flights.log.snapshot");
+        List<String> forces = new CopyOnWriteArrayList<>();
+        FileSync recordingSync = new FileSync() {
+            @Override
+            public void force(Path file, FileChannel channel, boolean metaData) throws IOException {
+                forces.add(file.getFileName() + " size=" + channel.size());
+            }
+
+            @Override
+            public void forceDirectory(Path directory) throws IOException {
+                assertTrue(Files.exists(snapshotFile));
+                forces.add("directory log size=" + Files.size(logFile));
+            }
+        };
+        try (FlightLog log = FlightLog.open(logFile, FsyncPolicy.NEVER, recordingSync, flight -> {
+        }, flight -> {
+        })) {
+            log.commit(log.append(FlightLog.encode("OL234")));
+            forces.clear();
+
+            log.compact(List.of("OL234"));
+
+            assertEquals(List.of("flights.log.snapshot.tmp size=21", "directory log size=21", "flights.log size=8"),
+                    forces);
+        }
+    }
+
+    @Test
+    public void testZeroFilledTailIsTruncated(@TempDir Path dir) throws Exception {
+        Path logFile = dir.resolve("flights.log");
+        try (FlightLog log = FlightLog.open(logFile, FsyncPolicy.ALWAYS, flight -> {
+        }, flight -> {
+        })) {
+            log.commit(log.append(FlightLog.encode("OL234")));
+        }
+        long size = Files.size(logFile);
+        Files.write(logFile, new byte[4096], StandardOpenOption.APPEND);
+
+        List<String> recovered = new ArrayList<>();
+        try (FlightLog log = FlightLog.open(logFile, FsyncPolicy.ALWAYS, flight -> {
+        }, recovered::add)) {
+            assertEquals(List.of("OL234"), recovered);
+            assertEquals(size, Files.size(logFile));
+        }
+    }
+
+    @Test
+    public void testEmptyFlightNumberIsNotEncoded() {
+        assertThrows(IllegalArgumentException.class, () -> FlightLog.encode(""));
+    }
+
+    @Test
+    public void testPeriodicPolicyForcesIdleLog(@TempDir Path dir) throws Exception {
+        CountDownLatch forced = new CountDownLatch(1);
+        FileSync countingSync = new FileSync() {
+            @Override
+            public void force(Path file, FileChannel channel, boolean metaData) {
+                if (!metaData) { // the header of a new log is forced with metadata on open
+                    forced.countDown();
+                }
+            }
+
+            @Override
+            public void forceDirectory(Path directory) {
+            }
+        };
+        try (FlightLog log = FlightLog.open(dir.resolve("flights.log"), FsyncPolicy.PERIODIC, countingSync,
+                flight -> {
+                }, flight -> {
+                })) {
+            log.commit(log.append(FlightLog.encode("OL234")));
+
+            assertTrue(forced.await(FlightLog.PERIODIC_FSYNC_INTERVAL.toMillis() * 20, TimeUnit.MILLISECONDS));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.bobocode.oop.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PersistentFlightDaoTest {
+
+    @Test
+    public void testFailedCommitFailsDao(@TempDir Path dir) {
+        AtomicBoolean failing = new AtomicBoolean();
+        FileSync failingSync = new FileSync() {
+            @Override
+            public void force(Path file, FileChannel channel, boolean metaData) throws IOException {
+                if (failing.get()) {
+                    throw new IOException("Disk is full");
+                }
+            }
+
+            @Override
+            public void forceDirectory(Path directory) {
+            }
+        };
+        try (PersistentFlightDao dao = new PersistentFlightDao(new ConcurrentFlightDao(), dir.resolve("flights.log"),
+                FsyncPolicy.ALWAYS, failingSync, PersistentFlightDao.DEFAULT_COMPACTION_THRESHOLD)) {
+            assertTrue(dao.register("OL234"));
+            failing.set(true);
+
+            assertThrows(UncheckedIOException.class, () -> dao.register("LH123"));
+            failing.set(false);
+
+            assertThrows(UncheckedIOException.class, () -> dao.register("LH123"));
+            assertThrows(UncheckedIOException.class, () -> dao.registerAll(List.of("LH123")));
+            assertThrows(UncheckedIOException.class, () -> dao.search("LH"));
+            assertThrows(UncheckedIOException.class, dao::findAll);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.bobocode.fp;
+
+import com.bobocode.model.Account;
+
+import java.time.Month;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * {@link AccountIndex} is a collection of accounts with secondary in-memory indexes: hash indexes on email, id and
+ * email domain, and an {@link EnumMap} index on birthday {@link Month}. Indexes are updated on every
+ * {@link #add(Account)}, {@link #remove(Object)} and {@link Iterator#remove()}, so a lookup never scans the collection.
+ * <p>
+ * When a {@link CrazyStreams} is created over an {@link AccountIndex}, its lookups by email, birthday month and email
+ * domain use the indexes instead of streams. Every index bucket keeps accounts in the iteration order of the
+ * collection, so results are the same as ones of a scan.
+ * <p>
+ * Lookups take O(1) time, but removals take O(N): {@link #remove(Object)} finds an account by a linear search of the
+ * collection, and both {@link #remove(Object)} and {@link Iterator#remove()} shift the following accounts of the
+ * collection and of the birthday month bucket. The index is meant for collections that are read much more often than
+ * accounts are removed.
+ * <p>
+ * Fields of an account that is stored in the index should not be changed. An index is not thread-safe.
+ */
+public class AccountIndex extends AbstractCollection<Account> {
+    private static final int MIN_INTERNED_DOMAINS = 16;
+
+    private final List<Account> accounts = new ArrayList<>();
+    private final Map<String, List<Account>> accountsByEmail = new HashMap<>();
+    private final Map<Long, List<Account>> accountsById = new HashMap<>();
+    private final Map<Month, List<Account>> accountsByBirthdayMonth = new EnumMap<>(Month.class);
+    private final Map<String, List<Account>> accountsByEmailDomain = new HashMap<>();
+    private EmailDomains.Interner domains = new EmailDomains.Interner();
+
+    public AccountIndex() {
+    }
+
+    public AccountIndex(Collection<? extends Account> accounts) {
+        addAll(accounts);
+    }
+
+    @Override
+    public boolean add(Account account) {
+        accounts.add(account);
+        index(accountsByEmail, account.getEmail(), account);
+        index(accountsById, account.getId(), account);
+        index(accountsByBirthdayMonth, account.getBirthday().getMonth(), account);
+        index(accountsByEmailDomain, domains.domainOf(account.getEmail()), account);
+        return true;
+    }
+
+    /**
+     * Removes the first account that is equal to the given one, and removes it from all indexes. It takes O(N) time,
+     * since the account is found by a linear search, and the following accounts are shifted.
+     *
+     * @param o an account to remove
+     * @return {@code true} if an account was removed
+     */
+    @Override
+    public boolean remove(Object o) {
+        int position = accounts.indexOf(o);
+        if (position < 0) {
+            return false;
+        }
+        unindex(accounts.remove(position));
+        return true;
+    }
+
+    /**
+     * Checks if the collection contains an account equal to the given one. {@link Account}s are equal by email, so
+     * it is a lookup in the email index.
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Account && accountsByEmail.containsKey(((Account) o).getEmail());
+    }
+
+    @Override
+    public void clear() {
+        accounts.clear();
+        accountsByEmail.clear();
+        accountsById.clear();
+        accountsByBirthdayMonth.clear();
+        accountsByEmailDomain.clear();
+        domains = new EmailDomains.Interner();
+    }
+
+    @Override
+    public Iterator<Account> iterator() {
+        Iterator<Account> iterator = accounts.iterator();
+        return new Iterator<>() {
+            private Account last;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Account next() {
+                last = iterator.next();
+                return last;
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+                unindex(last);
+                last = null;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return accounts.size();
+    }
+
+    /**
+     * Finds the first account with a given email
+     *
+     * @param email an email
+     * @return an account, or an empty optional if there is no account with such email
+     */
+    public Optional<Account> findByEmail(String email) {
+        return first(accountsByEmail.get(email));
+    }
+
+    /**
+     * Finds the first account with a given id
+     *
+     * @param id an id
+     * @return an account, or an empty optional if there is no account with such id
+     */
+    public Optional<Account> findById(Long id) {
+        return first(accountsById.get(id));
+    }
+
+    /**
+     * Returns all accounts with a given birthday month
+     *
+     * @param birthdayMonth a month of birth
+     * @return an unmodifiable view of accounts, in the iteration order of the collection
+     */
+    public List<Account> findByBirthdayMonth(Month birthdayMonth) {
+        return view(accountsByBirthdayMonth.get(birthdayMonth));
+    }
+
+    /**
+     * Returns all accounts with a given email domain
+     *
+     * @param emailDomain a domain like "gmail.com"
+     * @return an unmodifiable view of accounts, in the iteration order of the collection
+     */
+    public List<Account> findByEmailDomain(String emailDomain) {
+        return view(accountsByEmailDomain.get(emailDomain));
+    }
+
+    /**
+     * Returns all distinct email domains of accounts
+     *
+     * @return an unmodifiable view of domains
+     */
+    public Set<String> getEmailDomains() {
+        return Collections.unmodifiableSet(accountsByEmailDomain.keySet());
+    }
+
+    private void unindex(Account account) {
+        unindex(accountsByEmail, account.getEmail(), account);
+        unindex(accountsById, account.getId(), account);
+        unindex(accountsByBirthdayMonth, account.getBirthday().getMonth(), account);
+        unindex(accountsByEmailDomain, domains.domainOf(account.getEmail()), account);
+        if (domains.size() > 2 * accountsByEmailDomain.size() + MIN_INTERNED_DOMAINS) {
+            compactDomains();
+        }
+    }
+
+    /**
+     * Rebuilds the interner with live domains only, so domains of removed accounts are not retained forever. It runs
+     * once more than half of interned domains are dead, so its cost is amortized over removals.
+     */
+    private void compactDomains() {
+        domains = new EmailDomains.Interner();
+        accountsByEmailDomain.keySet().forEach(domains::intern);
+    }
+
+    private static <K> void index(Map<K, List<Account>> index, K key, Account account) {
+        index.computeIfAbsent(key, k -> new ArrayList<>(1)).add(account);
+    }
+
+    /**
+     * Removes exactly the given instance from its bucket, because other accounts in the bucket may be equal to it
+     */
+    private static <K> void unindex(Map<K, List<Account>> index, K key, Account account) {
+        List<Account> bucket = index.get(key);
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == account) {
+                bucket.remove(i);
+                break;
+            }
+        }
+        if (bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static Optional<Account> first(List<Account> bucket) {
+        return bucket == null ? Optional.empty() : Optional.of(bucket.get(0));
+    }
+
+    private static List<Account> view(List<Account> bucket) {
+        return bucket == null ? Collections.emptyList() : Collections.unmodifiableList(bucket);
+    }
+}
@@ -0,0 +1,260 @@
+package com.bobocode.fp;
+
+import com.bobocode.data.BalanceSum;
+import com.bobocode.model.Account;
+import com.bobocode.model.Sex;
+
+import java.math.BigDecimal;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.stream.Collector;
+
+/**
+ * {@link AccountReport} holds a requested subset of {@link AccountStatistic}s computed in a single traversal of
+ * accounts. The report is built by a composite {@link Collector} that updates every requested aggregate for each
+ * account, so a dozen statistics cost one pass instead of a dozen. The collector supports parallel streams, and its
+ * results are the same as results of the corresponding {@link CrazyStreams} methods.
+ */
+public class AccountReport {
+    private final Set<AccountStatistic> statistics;
+    private final Accumulator accumulator;
+
+    private AccountReport(Set<AccountStatistic> statistics, Accumulator accumulator) {
+        this.statistics = statistics;
+        this.accumulator = accumulator;
+    }
+
+    /**
+     * Returns a collector that computes the given statistics in one pass
+     *
+     * @param statistics statistics to compute
+     * @return a collector of the report
+     */
+    public static Collector<Account, ?, AccountReport> collector(Set<AccountStatistic> statistics) {
+        Set<AccountStatistic> requested = statistics.isEmpty()
+                ? EnumSet.noneOf(AccountStatistic.class)
+                : EnumSet.copyOf(statistics);
+        return Collector.of(() -> new Accumulator(requested), Accumulator::add, Accumulator::combine,
+                accumulator -> new AccountReport(requested, accumulator));
+    }
+
+    public Set<AccountStatistic> getStatistics() {
+        return EnumSet.copyOf(statistics);
+    }
+
+    public Optional<Account> getRichestPerson() {
+        require(AccountStatistic.RICHEST_PERSON);
+        return Optional.ofNullable(accumulator.richestPerson);
+    }
+
+    public Map<Boolean, List<Account>> getMaleAccountsPartition() {
+        require(AccountStatistic.MALE_ACCOUNTS_PARTITION);
+        Map<Boolean, List<Account>> partition = new HashMap<>();
+        partition.put(true, accumulator.maleAccounts);
+        partition.put(false, accumulator.femaleAccounts);
+        return partition;
+    }
+
+    public Map<String, List<Account>> getAccountsByEmailDomain() {
+        require(AccountStatistic.ACCOUNTS_BY_EMAIL_DOMAIN);
+        return accumulator.accountsByEmailDomain;
+    }
+
+    public int getNumOfLettersInFirstAndLastNames() {
+        require(AccountStatistic.NUM_OF_LETTERS_IN_FIRST_AND_LAST_NAMES);
+        return accumulator.numOfLetters;
+    }
+
+    public BigDecimal getTotalBalance() {
+        require(AccountStatistic.TOTAL_BALANCE);
+        return accumulator.totalBalance.toBigDecimal();
+    }
+
+    public Map<Long, Account> getAccountsById() {
+        require(AccountStatistic.ACCOUNTS_BY_ID);
+        return accumulator.accountsById;
+    }
+
+    public Map<String, Set<String>> getFirstNamesByLastNames() {
+        require(AccountStatistic.FIRST_NAMES_BY_LAST_NAMES);
+        return accumulator.firstNamesByLastNames;
+    }
+
+    public Map<Month, String> getCommaSeparatedFirstNamesByBirthdayMonth() {
+        require(AccountStatistic.COMMA_SEPARATED_FIRST_NAMES_BY_BIRTHDAY_MONTH);
+        Map<Month, String> firstNames = new HashMap<>();
+        accumulator.firstNamesByBirthdayMonth.forEach((month, joiner) -> firstNames.put(month, joiner.toString()));
+        return firstNames;
+    }
+
+    public Map<Month, BigDecimal> getTotalBalanceByCreationMonth() {
+        require(AccountStatistic.TOTAL_BALANCE_BY_CREATION_MONTH);
+        Map<Month, BigDecimal> totalBalances = new HashMap<>();
+        accumulator.totalBalanceByCreationMonth.forEach((month, sum) -> totalBalances.put(month, sum.toBigDecimal()));
+        return totalBalances;
+    }
+
+    public Map<Character, Long> getCharacterFrequencyInFirstNames() {
+        require(AccountStatistic.CHARACTER_FREQUENCY_IN_FIRST_NAMES);
+        return accumulator.characterFrequencyInFirstNames.toMap();
+    }
+
+    private void require(AccountStatistic statistic) {
+        if (!statistics.contains(statistic)) {
+            throw new IllegalStateException("Statistic " + statistic + " was not requested for the report");
+        }
+    }
+
+    /**
+     * A mutable state of all requested aggregates. Aggregates that were not requested are neither allocated nor
+     * updated.
+     */
+    private static class Accumulator {
+        private final boolean richestPersonRequested;
+        private final boolean partitionRequested;
+        private final boolean numOfLettersRequested;
+        private final boolean totalBalanceRequested;
+
+        private Account richestPerson;
+        private List<Account> maleAccounts;
+        private List<Account> femaleAccounts;
+        private Map<String, List<Account>> accountsByEmailDomain;
+        private EmailDomains.Interner domains;
+        private int numOfLetters;
+        private BalanceSum totalBalance;
+        private Map<Long, Account> accountsById;
+        private Map<String, Set<String>> firstNamesByLastNames;
+        private Map<Month, StringJoiner> firstNamesByBirthdayMonth;
+        private Map<Month, BalanceSum> totalBalanceByCreationMonth;
+        private CharacterHistogram characterFrequencyInFirstNames;
+
+        Accumulator(Set<AccountStatistic> statistics) {
+            this.richestPersonRequested = statistics.contains(AccountStatistic.RICHEST_PERSON);
+            this.partitionRequested = statistics.contains(AccountStatistic.MALE_ACCOUNTS_PARTITION);
+            this.numOfLettersRequested = statistics.contains(AccountStatistic.NUM_OF_LETTERS_IN_FIRST_AND_LAST_NAMES);
+            this.totalBalanceRequested = statistics.contains(AccountStatistic.TOTAL_BALANCE);
+            if (totalBalanceRequested) {
+                this.totalBalance = new BalanceSum();
+            }
+            if (partitionRequested) {
+                this.maleAccounts = new ArrayList<>();
+                this.femaleAccounts = new ArrayList<>();
+            }
+            if (statistics.contains(AccountStatistic.ACCOUNTS_BY_EMAIL_DOMAIN)) {
+                this.accountsByEmailDomain = new HashMap<>();
+                this.domains = new EmailDomains.Interner();
+            }
+            if (statistics.contains(AccountStatistic.ACCOUNTS_BY_ID)) {
+                this.accountsById = new HashMap<>();
+            }
+            if (statistics.contains(AccountStatistic.FIRST_NAMES_BY_LAST_NAMES)) {
+                this.firstNamesByLastNames = new HashMap<>();
+            }
+            if (statistics.contains(AccountStatistic.COMMA_SEPARATED_FIRST_NAMES_BY_BIRTHDAY_MONTH)) {
+                this.firstNamesByBirthdayMonth = new EnumMap<>(Month.class);
+            }
+            if (statistics.contains(AccountStatistic.TOTAL_BALANCE_BY_CREATION_MONTH)) {
+                this.totalBalanceByCreationMonth = new EnumMap<>(Month.class);
+            }
+            if (statistics.contains(AccountStatistic.CHARACTER_FREQUENCY_IN_FIRST_NAMES)) {
+                this.characterFrequencyInFirstNames = new CharacterHistogram();
+            }
+        }
+
+        void add(Account account) {
+            if (richestPersonRequested
+                    && (richestPerson == null || account.getBalance().compareTo(richestPerson.getBalance()) > 0)) {
+                richestPerson = account;
+            }
+            if (partitionRequested) {
+                (account.getSex() == Sex.MALE ? maleAccounts : femaleAccounts).add(account);
+            }
+            if (accountsByEmailDomain != null) {
+                accountsByEmailDomain.computeIfAbsent(domains.domainOf(account.getEmail()), d -> new ArrayList<>())
+                        .add(account);
+            }
+            if (numOfLettersRequested) {
+                numOfLetters += account.getFirstName().length() + account.getLastName().length();
+            }
+            if (totalBalanceRequested) {
+                totalBalance.add(account.getBalance());
+            }
+            if (accountsById != null) {
+                putUniqueId(accountsById, account.getId(), account);
+            }
+            if (firstNamesByLastNames != null) {
+                firstNamesByLastNames.computeIfAbsent(account.getLastName(), n -> new HashSet<>())
+                        .add(account.getFirstName());
+            }
+            if (firstNamesByBirthdayMonth != null) {
+                firstNamesByBirthdayMonth.computeIfAbsent(account.getBirthday().getMonth(), m -> new StringJoiner(", "))
+                        .add(account.getFirstName());
+            }
+            if (totalBalanceByCreationMonth != null) {
+                totalBalanceByCreationMonth.computeIfAbsent(account.getCreationDate().getMonth(), m -> new BalanceSum())
+                        .add(account.getBalance());
+            }
+            if (characterFrequencyInFirstNames != null) {
+                characterFrequencyInFirstNames.add(account.getFirstName());
+            }
+        }
+
+        /**
+         * Merges an accumulator of a later part of the stream into this one, keeping the encounter order
+         */
+        Accumulator combine(Accumulator other) {
+            if (richestPersonRequested && other.richestPerson != null && (richestPerson == null
+                    || other.richestPerson.getBalance().compareTo(richestPerson.getBalance()) > 0)) {
+                richestPerson = other.richestPerson;
+            }
+            if (partitionRequested) {
+                maleAccounts.addAll(other.maleAccounts);
+                femaleAccounts.addAll(other.femaleAccounts);
+            }
+            if (accountsByEmailDomain != null) {
+                other.accountsByEmailDomain.forEach((domain, accounts) ->
+                        accountsByEmailDomain.computeIfAbsent(domain, d -> new ArrayList<>()).addAll(accounts));
+            }
+            numOfLetters += other.numOfLetters;
+            if (totalBalanceRequested) {
+                totalBalance.combine(other.totalBalance);
+            }
+            if (accountsById != null) {
+                other.accountsById.forEach((id, account) -> putUniqueId(accountsById, id, account));
+            }
+            if (firstNamesByLastNames != null) {
+                other.firstNamesByLastNames.forEach((lastName, firstNames) ->
+                        firstNamesByLastNames.computeIfAbsent(lastName, n -> new HashSet<>()).addAll(firstNames));
+            }
+            if (firstNamesByBirthdayMonth != null) {
+                other.firstNamesByBirthdayMonth.forEach((month, firstNames) ->
+                        firstNamesByBirthdayMonth.merge(month, firstNames, StringJoiner::merge));
+            }
+            if (totalBalanceByCreationMonth != null) {
+                other.totalBalanceByCreationMonth.forEach((month, balance) ->
+                        totalBalanceByCreationMonth.merge(month, balance, BalanceSum::combine));
+            }
+            if (characterFrequencyInFirstNames != null) {
+                characterFrequencyInFirstNames.merge(other.characterFrequencyInFirstNames);
+            }
+            return this;
+        }
+
+        private static void putUniqueId(Map<Long, Account> accountsById, Long id, Account account) {
+            Account existing = accountsById.putIfAbsent(id, account);
+            if (existing != null) {
+                throw new IllegalStateException(String.format("Duplicate key %s (attempted merging values %s and %s)",
+                        id, existing, account));
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bobocode.fp;
+
+/**
+ * {@link AccountStatistic} lists aggregates that {@link AccountReport} can compute in a single pass over accounts.
+ * Every constant is named after the {@link CrazyStreams} method that computes the same aggregate on its own.
+ */
+public enum AccountStatistic {
+    /**
+     * {@link CrazyStreams#findRichestPerson()}
+     */
+    RICHEST_PERSON,
+    /**
+     * {@link CrazyStreams#partitionMaleAccounts()}
+     */
+    MALE_ACCOUNTS_PARTITION,
+    /**
+     * {@link CrazyStreams#groupAccountsByEmailDomain()}
+     */
+    ACCOUNTS_BY_EMAIL_DOMAIN,
+    /**
+     * {@link CrazyStreams#getNumOfLettersInFirstAndLastNames()}
+     */
+    NUM_OF_LETTERS_IN_FIRST_AND_LAST_NAMES,
+    /**
+     * {@link CrazyStreams#calculateTotalBalance()}
+     */
+    TOTAL_BALANCE,
+    /**
+     * {@link CrazyStreams#collectAccountsById()}
+     */
+    ACCOUNTS_BY_ID,
+    /**
+     * {@link CrazyStreams#groupFirstNamesByLastNames()}
+     */
+    FIRST_NAMES_BY_LAST_NAMES,
+    /**
+     * {@link CrazyStreams#groupCommaSeparatedFirstNamesByBirthdayMonth()}
+     */
+    COMMA_SEPARATED_FIRST_NAMES_BY_BIRTHDAY_MONTH,
+    /**
+     * {@link CrazyStreams#groupTotalBalanceByCreationMonth()}
+     */
+    TOTAL_BALANCE_BY_CREATION_MONTH,
+    /**
+     * {@link CrazyStreams#getCharacterFrequencyInFirstNames()}
+     */
+    CHARACTER_FREQUENCY_IN_FIRST_NAMES
+}
@@ -0,0 +1,127 @@
+package com.bobocode.fp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link CharacterHistogram} counts chars into primitive arrays indexed by char, without boxing or per-char map
+ * lookups. Latin-1 chars are counted in a dense array, and wider chars are counted in 256-entry pages indexed by the
+ * high byte of a char, that are allocated only when a char of the page is seen. Histograms of separate partitions are
+ * merged by adding arrays, and a {@link Map} is built only at the end.
+ */
+class CharacterHistogram {
+    private static final int PAGE_SIZE = 256;
+    private static final int PAGE_COUNT = (Character.MAX_VALUE + 1) / PAGE_SIZE;
+
+    private final long[] latin1Counts = new long[PAGE_SIZE];
+    private long[][] pages; // pages[0] is never used, Latin-1 chars are counted in latin1Counts
+
+    /**
+     * Counts all chars of a text
+     *
+     * @param text a text to count
+     */
+    void add(String text) {
+        add(text, 1);
+    }
+
+    /**
+     * Counts all chars of a text that occurs a given number of times
+     *
+     * @param text  a text to count
+     * @param times a number of occurrences of the text
+     */
+    void add(String text, long times) {
+        for (int i = 0; i < text.length(); i++) {
+            add(text.charAt(i), times);
+        }
+    }
+
+    /**
+     * Counts all chars of a text in lower case
+     *
+     * @param text a text to count
+     */
+    void addLowerCase(String text) {
+        addLowerCase(text, 1);
+    }
+
+    /**
+     * Counts all chars of a text in lower case, that occurs a given number of times
+     *
+     * @param text  a text to count
+     * @param times a number of occurrences of the text
+     */
+    void addLowerCase(String text, long times) {
+        for (int i = 0; i < text.length(); i++) {
+            add(Character.toLowerCase(text.charAt(i)), times);
+        }
+    }
+
+    /**
+     * Adds counts of another histogram to this one
+     *
+     * @param other a histogram to add
+     */
+    void merge(CharacterHistogram other) {
+        addCounts(latin1Counts, other.latin1Counts);
+        if (other.pages == null) {
+            return;
+        }
+        for (int page = 1; page < PAGE_COUNT; page++) {
+            if (other.pages[page] != null) {
+                addCounts(page(page), other.pages[page]);
+            }
+        }
+    }
+
+    /**
+     * Builds a map of all counted chars
+     *
+     * @return a map where key is a char and value is its count, with no zero counts
+     */
+    Map<Character, Long> toMap() {
+        Map<Character, Long> frequencies = new HashMap<>();
+        putCounts(frequencies, 0, latin1Counts);
+        if (pages != null) {
+            for (int page = 1; page < PAGE_COUNT; page++) {
+                if (pages[page] != null) {
+                    putCounts(frequencies, page * PAGE_SIZE, pages[page]);
+                }
+            }
+        }
+        return frequencies;
+    }
+
+    private void add(char c, long times) {
+        if (c < PAGE_SIZE) {
+            latin1Counts[c] += times;
+        } else {
+            page(c / PAGE_SIZE)[c % PAGE_SIZE] += times;
+        }
+    }
+
+    private long[] page(int page) {
+        if (pages == null) {
+            pages = new long[PAGE_COUNT][];
+        }
+        if (pages[page] == null) {
+            pages[page] = new long[PAGE_SIZE];
+        }
+        return pages[page];
+    }
+
+    private static void addCounts(long[] counts, long[] otherCounts) {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            counts[i] += otherCounts[i];
+        }
+    }
+
+    private static void putCounts(Map<Character, Long> frequencies, int firstChar, long[] counts) {
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            if (counts[i] > 0) {
+                frequencies.put((char) (firstChar + i), counts[i]);
+            }
+        }
+    }
+}
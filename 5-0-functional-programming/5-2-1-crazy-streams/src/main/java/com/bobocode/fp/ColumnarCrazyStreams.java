@@ -0,0 +1,332 @@
+package com.bobocode.fp;
+
+import com.bobocode.data.AccountColumns;
+import com.bobocode.data.BalanceSum;
+import com.bobocode.fp.exception.EntityNotFoundException;
+import com.bobocode.model.Account;
+import com.bobocode.model.Sex;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@link ColumnarCrazyStreams} answers the basic queries of {@link CrazyStreams} over {@link AccountColumns}, i.e.
+ * all of them except top-n queries, concurrent grouping and reports. Aggregates scan primitive columns (e.g. balances
+ * in cents, month ordinals, name ids) instead of account objects, and results are the same as results of the
+ * corresponding {@link CrazyStreams} methods.
+ */
+public class ColumnarCrazyStreams {
+    private static final int MONTH_COUNT = Month.values().length;
+
+    private final AccountColumns columns;
+
+    public ColumnarCrazyStreams(AccountColumns columns) {
+        this.columns = columns;
+    }
+
+    public ColumnarCrazyStreams(Collection<Account> accounts) {
+        this(AccountColumns.of(accounts));
+    }
+
+    /**
+     * @see CrazyStreams#findRichestPerson()
+     */
+    public Optional<Account> findRichestPerson() {
+        int richest = -1;
+        for (int row = 0; row < columns.size(); row++) {
+            if (richest < 0 || columns.getBalanceCents(row) > columns.getBalanceCents(richest)) {
+                richest = row;
+            }
+        }
+        return richest < 0 ? Optional.empty() : Optional.of(columns.getAccount(richest));
+    }
+
+    /**
+     * @see CrazyStreams#findAccountsByBirthdayMonth(Month)
+     */
+    public List<Account> findAccountsByBirthdayMonth(Month birthdayMonth) {
+        int ordinal = birthdayMonth.ordinal();
+        List<Account> found = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            if (columns.getBirthdayMonthOrdinal(row) == ordinal) {
+                found.add(columns.getAccount(row));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @see CrazyStreams#partitionMaleAccounts()
+     */
+    public Map<Boolean, List<Account>> partitionMaleAccounts() {
+        int male = Sex.MALE.ordinal();
+        List<Account> maleAccounts = new ArrayList<>();
+        List<Account> femaleAccounts = new ArrayList<>();
+        for (int row = 0; row < columns.size(); row++) {
+            (columns.getSexOrdinal(row) == male ? maleAccounts : femaleAccounts).add(columns.getAccount(row));
+        }
+        Map<Boolean, List<Account>> partition = new HashMap<>();
+        partition.put(true, maleAccounts);
+        partition.put(false, femaleAccounts);
+        return partition;
+    }
+
+    /**
+     * @see CrazyStreams#groupAccountsByEmailDomain()
+     */
+    public Map<String, List<Account>> groupAccountsByEmailDomain() {
+        AccountColumns.Dictionary domains = columns.getEmailDomains();
+        List<List<Account>> accountsByDomainId = new ArrayList<>(domains.size());
+        for (int id = 0; id < domains.size(); id++) {
+            accountsByDomainId.add(new ArrayList<>());
+        }
+        for (int row = 0; row < columns.size(); row++) {
+            accountsByDomainId.get(columns.getEmailDomainId(row)).add(columns.getAccount(row));
+        }
+        Map<String, List<Account>> accountsByDomain = new HashMap<>();
+        for (int id = 0; id < domains.size(); id++) {
+            accountsByDomain.put(domains.get(id), accountsByDomainId.get(id));
+        }
+        return accountsByDomain;
+    }
+
+    /**
+     * @see CrazyStreams#getNumOfLettersInFirstAndLastNames()
+     */
+    public int getNumOfLettersInFirstAndLastNames() {
+        int[] firstNameLengths = lengths(columns.getFirstNames());
+        int[] lastNameLengths = lengths(columns.getLastNames());
+        int numOfLetters = 0;
+        for (int row = 0; row < columns.size(); row++) {
+            numOfLetters += firstNameLengths[columns.getFirstNameId(row)] + lastNameLengths[columns.getLastNameId(row)];
+        }
+        return numOfLetters;
+    }
+
+    /**
+     * @see CrazyStreams#calculateTotalBalance()
+     */
+    public BigDecimal calculateTotalBalance() {
+        BalanceSum totalBalance = new BalanceSum();
+        for (int row = 0; row < columns.size(); row++) {
+            totalBalance.addCents(columns.getBalanceCents(row), columns.getBalanceScale(row));
+        }
+        return totalBalance.toBigDecimal();
+    }
+
+    /**
+     * Sorts rows by ranks of first and last name ids, so names are compared only once per distinct name
+     *
+     * @see CrazyStreams#sortByFirstAndLastNames()
+     */
+    public List<Account> sortByFirstAndLastNames() {
+        int[] firstNameRanks = ranks(columns.getFirstNames());
+        int[] lastNameRanks = ranks(columns.getLastNames());
+        long[] keys = new long[columns.size()];
+        Integer[] rows = new Integer[columns.size()];
+        for (int row = 0; row < rows.length; row++) {
+            keys[row] = (long) firstNameRanks[columns.getFirstNameId(row)] << Integer.SIZE
+                    | lastNameRanks[columns.getLastNameId(row)];
+            rows[row] = row;
+        }
+        Arrays.sort(rows, Comparator.comparingLong(row -> keys[row]));
+        List<Account> sorted = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            sorted.add(columns.getAccount(row));
+        }
+        return sorted;
+    }
+
+    /**
+     * @see CrazyStreams#containsAccountWithEmailDomain(String)
+     */
+    public boolean containsAccountWithEmailDomain(String emailDomain) {
+        return columns.getEmailDomains().idOf(emailDomain) >= 0;
+    }
+
+    /**
+     * Compares emails only of rows with the same email domain id
+     *
+     * @see CrazyStreams#getBalanceByEmail(String)
+     */
+    public BigDecimal getBalanceByEmail(String email) {
+        int domainId = columns.getEmailDomains().idOf(email.substring(email.indexOf('@') + 1));
+        if (domainId >= 0) {
+            for (int row = 0; row < columns.size(); row++) {
+                if (columns.getEmailDomainId(row) == domainId && columns.getAccount(row).getEmail().equals(email)) {
+                    return columns.getAccount(row).getBalance();
+                }
+            }
+        }
+        throw new EntityNotFoundException("Cannot find Account by email=" + email);
+    }
+
+    /**
+     * @see CrazyStreams#collectAccountsById()
+     */
+    public Map<Long, Account> collectAccountsById() {
+        Map<Long, Account> accountsById = new HashMap<>();
+        for (int row = 0; row < columns.size(); row++) {
+            Account account = columns.getAccount(row);
+            if (accountsById.putIfAbsent(account.getId(), account) != null) {
+                throw new IllegalStateException("Duplicate key " + account.getId());
+            }
+        }
+        return accountsById;
+    }
+
+    /**
+     * @see CrazyStreams#collectBalancesByEmailForAccountsCreatedOn(int)
+     */
+    public Map<String, BigDecimal> collectBalancesByEmailForAccountsCreatedOn(int year) {
+        long from = LocalDate.of(year, 1, 1).toEpochDay();
+        long to = LocalDate.of(year + 1, 1, 1).toEpochDay();
+        Map<String, BigDecimal> balancesByEmail = new HashMap<>();
+        for (int row = 0; row < columns.size(); row++) {
+            int creationEpochDay = columns.getCreationEpochDay(row);
+            if (creationEpochDay >= from && creationEpochDay < to) {
+                Account account = columns.getAccount(row);
+                if (balancesByEmail.putIfAbsent(account.getEmail(), account.getBalance()) != null) {
+                    throw new IllegalStateException("Duplicate key " + account.getEmail());
+                }
+            }
+        }
+        return balancesByEmail;
+    }
+
+    /**
+     * @see CrazyStreams#groupFirstNamesByLastNames()
+     */
+    public Map<String, Set<String>> groupFirstNamesByLastNames() {
+        AccountColumns.Dictionary firstNames = columns.getFirstNames();
+        AccountColumns.Dictionary lastNames = columns.getLastNames();
+        Map<String, Set<String>> firstNamesByLastNames = new HashMap<>();
+        for (int row = 0; row < columns.size(); row++) {
+            firstNamesByLastNames.computeIfAbsent(lastNames.get(columns.getLastNameId(row)), n -> new HashSet<>())
+                    .add(firstNames.get(columns.getFirstNameId(row)));
+        }
+        return firstNamesByLastNames;
+    }
+
+    /**
+     * @see CrazyStreams#groupCommaSeparatedFirstNamesByBirthdayMonth()
+     */
+    public Map<Month, String> groupCommaSeparatedFirstNamesByBirthdayMonth() {
+        AccountColumns.Dictionary firstNames = columns.getFirstNames();
+        StringJoiner[] joiners = new StringJoiner[MONTH_COUNT];
+        for (int row = 0; row < columns.size(); row++) {
+            int month = columns.getBirthdayMonthOrdinal(row);
+            if (joiners[month] == null) {
+                joiners[month] = new StringJoiner(", ");
+            }
+            joiners[month].add(firstNames.get(columns.getFirstNameId(row)));
+        }
+        Map<Month, String> firstNamesByMonth = new HashMap<>();
+        for (int month = 0; month < MONTH_COUNT; month++) {
+            if (joiners[month] != null) {
+                firstNamesByMonth.put(AccountColumns.toMonth(month), joiners[month].toString());
+            }
+        }
+        return firstNamesByMonth;
+    }
+
+    /**
+     * @see CrazyStreams#groupTotalBalanceByCreationMonth()
+     */
+    public Map<Month, BigDecimal> groupTotalBalanceByCreationMonth() {
+        BalanceSum[] balances = new BalanceSum[MONTH_COUNT];
+        for (int row = 0; row < columns.size(); row++) {
+            int month = columns.getCreationMonthOrdinal(row);
+            if (balances[month] == null) {
+                balances[month] = new BalanceSum();
+            }
+            balances[month].addCents(columns.getBalanceCents(row), columns.getBalanceScale(row));
+        }
+        Map<Month, BigDecimal> balanceByMonth = new HashMap<>();
+        for (int month = 0; month < MONTH_COUNT; month++) {
+            if (balances[month] != null) {
+                balanceByMonth.put(AccountColumns.toMonth(month), balances[month].toBigDecimal());
+            }
+        }
+        return balanceByMonth;
+    }
+
+    /**
+     * Counts chars of every distinct first name once, multiplied by the number of its occurrences
+     *
+     * @see CrazyStreams#getCharacterFrequencyInFirstNames()
+     */
+    public Map<Character, Long> getCharacterFrequencyInFirstNames() {
+        AccountColumns.Dictionary firstNames = columns.getFirstNames();
+        long[] occurrences = occurrences(firstNames, columns::getFirstNameId);
+        CharacterHistogram histogram = new CharacterHistogram();
+        for (int id = 0; id < occurrences.length; id++) {
+            histogram.add(firstNames.get(id), occurrences[id]);
+        }
+        return histogram.toMap();
+    }
+
+    /**
+     * Counts chars of every distinct first and last name once, multiplied by the number of its occurrences
+     *
+     * @see CrazyStreams#getCharacterFrequencyIgnoreCaseInFirstAndLastNames(int)
+     */
+    public Map<Character, Long> getCharacterFrequencyIgnoreCaseInFirstAndLastNames(int nameLengthBound) {
+        CharacterHistogram histogram = new CharacterHistogram();
+        addLowerCase(histogram, columns.getFirstNames(), columns::getFirstNameId, nameLengthBound);
+        addLowerCase(histogram, columns.getLastNames(), columns::getLastNameId, nameLengthBound);
+        return histogram.toMap();
+    }
+
+    private void addLowerCase(CharacterHistogram histogram, AccountColumns.Dictionary names, IntUnaryOperator nameIds,
+                              int nameLengthBound) {
+        long[] occurrences = occurrences(names, nameIds);
+        for (int id = 0; id < occurrences.length; id++) {
+            if (names.get(id).length() >= nameLengthBound) {
+                histogram.addLowerCase(names.get(id), occurrences[id]);
+            }
+        }
+    }
+
+    private long[] occurrences(AccountColumns.Dictionary dictionary, IntUnaryOperator ids) {
+        long[] occurrences = new long[dictionary.size()];
+        for (int row = 0; row < columns.size(); row++) {
+            occurrences[ids.applyAsInt(row)]++;
+        }
+        return occurrences;
+    }
+
+    private static int[] ranks(AccountColumns.Dictionary dictionary) {
+        Integer[] ids = new Integer[dictionary.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = id;
+        }
+        Arrays.sort(ids, Comparator.comparing(dictionary::get));
+        int[] ranks = new int[ids.length];
+        for (int rank = 0; rank < ids.length; rank++) {
+            ranks[ids[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static int[] lengths(AccountColumns.Dictionary dictionary) {
+        int[] lengths = new int[dictionary.size()];
+        for (int id = 0; id < lengths.length; id++) {
+            lengths[id] = dictionary.get(id).length();
+        }
+        return lengths;
+    }
+}
@@ -1,5 +1,6 @@
 package com.bobocode.fp;
 
+import com.bobocode.data.BalanceSum;
 import com.bobocode.fp.exception.EntityNotFoundException;
 import com.bobocode.model.Account;
 import com.bobocode.model.Sex;
@@ -10,16 +11,25 @@ import java.math.BigDecimal;
 import java.time.Month;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * {@link CrazyStreams} is an exercise class. Each method represent some operation with a collection of accounts that
  * should be implemented using Stream API. Every method that is not implemented yet throws
  * {@link ExerciseNotCompletedException}.
+ * <p>
+ * If accounts are an {@link AccountIndex}, lookups by email, birthday month and email domain use its indexes instead
+ * of scanning all accounts.
  *
  * @author Taras Boychuk
  */
 @AllArgsConstructor
 public class CrazyStreams {
+    private static final int PARALLEL_HISTOGRAM_THRESHOLD = 100_000;
+    private static final int PARALLEL_SORT_THRESHOLD = 100_000;
+    private static final Comparator<Account> BY_FIRST_AND_LAST_NAMES = Comparator.comparing(Account::getFirstName)
+            .thenComparing(Account::getLastName);
+
     private Collection<Account> accounts;
 
     /**
@@ -38,6 +48,9 @@ public class CrazyStreams {
      * @return a list of accounts
      */
     public List<Account> findAccountsByBirthdayMonth(Month birthdayMonth) {
+        if (accounts instanceof AccountIndex) {
+            return new ArrayList<>(((AccountIndex) accounts).findByBirthdayMonth(birthdayMonth));
+        }
         return accounts.stream().filter(i -> i.getBirthday().getMonthValue() == birthdayMonth.getValue()).collect(Collectors.toList());
     }
 
@@ -58,14 +71,37 @@ public class CrazyStreams {
     /**
      * Returns a {@link Map} that stores accounts grouped by its email domain. A map key is {@link String} which is an
      * email domain like "gmail.com". And the value is a {@link List} of {@link Account} objects with a specific email domain.
+     * <p>
+     * Accounts are grouped in a single pass, and every distinct domain string is allocated only once.
      *
      * @return a map where key is an email domain and value is a list of all account with such email
      */
     public Map<String, List<Account>> groupAccountsByEmailDomain() {
-        Map<String, List<Account>> accountMap = new HashMap<>();
-        Set<String> domains = accounts.stream().map(i -> i.getEmail().split("@")[1]).collect(Collectors.toSet());
-        domains.forEach(i -> accountMap.put(i, accounts.stream().filter(j -> j.getEmail().indexOf("@" + i) > -1).collect(Collectors.toList())));
-        return accountMap;
+        if (accounts instanceof AccountIndex) {
+            AccountIndex index = (AccountIndex) accounts;
+            Map<String, List<Account>> accountsByDomain = new HashMap<>();
+            for (String domain : index.getEmailDomains()) {
+                accountsByDomain.put(domain, new ArrayList<>(index.findByEmailDomain(domain)));
+            }
+            return accountsByDomain;
+        }
+        EmailDomains.Interner domains = new EmailDomains.Interner();
+        return accounts.stream().collect(Collectors.groupingBy(i -> domains.domainOf(i.getEmail())));
+    }
+
+    /**
+     * Does the same as {@link #groupAccountsByEmailDomain()}, but groups accounts of a parallel stream with
+     * {@link Collectors#groupingByConcurrent}, so all threads add accounts into a single concurrent map, and no
+     * partial maps are merged. {@link EmailDomains.Interner} is not thread-safe, so every thread has its own interner
+     * created for this call, and a domain string is allocated once per thread rather than once per account. The order
+     * of accounts inside each list is not specified.
+     *
+     * @return a map where key is an email domain and value is a list of all account with such email
+     */
+    public Map<String, List<Account>> groupAccountsByEmailDomainConcurrently() {
+        ThreadLocal<EmailDomains.Interner> domains = ThreadLocal.withInitial(EmailDomains.Interner::new);
+        return accounts.parallelStream()
+                .collect(Collectors.groupingByConcurrent(i -> domains.get().domainOf(i.getEmail())));
     }
 
     /**
@@ -79,24 +115,65 @@ public class CrazyStreams {
 
     /**
      * Returns a total balance of all accounts.
+     * <p>
+     * Balances are summed in {@code long} cents while possible (see {@link BalanceSum}).
      *
      * @return total balance of all accounts
      */
     public BigDecimal calculateTotalBalance() {
-        return accounts.stream().map(i -> i.getBalance()).reduce(BigDecimal.ZERO, (a, b) -> a.add(b));
+        return accounts.stream().map(Account::getBalance).collect(BalanceSum.summing());
     }
 
     /**
      * Returns a {@link List} of {@link Account} objects sorted by first and last names.
+     * <p>
+     * Accounts are sorted once by a composite comparator, and large collections are sorted in parallel. The sort is
+     * stable, so accounts with the same names keep their order.
      *
      * @return list of accounts sorted by first and last names
      */
     public List<Account> sortByFirstAndLastNames() {
-        return accounts
-                .stream()
-                .sorted((a, b) -> a.getLastName().compareTo(b.getLastName()))
-                .sorted((a, b) -> a.getFirstName().compareTo(b.getFirstName()))
-                .collect(Collectors.toList());
+        Account[] sorted = accounts.toArray(new Account[0]);
+        if (sorted.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(sorted, BY_FIRST_AND_LAST_NAMES);
+        } else {
+            Arrays.sort(sorted, BY_FIRST_AND_LAST_NAMES);
+        }
+        return new ArrayList<>(Arrays.asList(sorted));
+    }
+
+    /**
+     * Returns first n accounts in the order of a comparator, that is the same as the first n accounts of a stable
+     * sort. Accounts are kept in a bounded heap, so it takes O(N log n) time instead of sorting all N accounts.
+     *
+     * @param comparator an order of accounts
+     * @param n          max number of accounts to return
+     * @return a list of at most n accounts sorted by the comparator
+     */
+    public List<Account> topN(Comparator<? super Account> comparator, int n) {
+        Stream<Account> stream = accounts.size() >= PARALLEL_SORT_THRESHOLD ? accounts.parallelStream()
+                : accounts.stream();
+        return stream.collect(TopN.collector(comparator, n));
+    }
+
+    /**
+     * Returns n accounts with the max balance, the richest first.
+     *
+     * @param n max number of accounts to return
+     * @return a list of at most n richest accounts
+     */
+    public List<Account> findRichestAccounts(int n) {
+        return topN(Comparator.comparing(Account::getBalance).reversed(), n);
+    }
+
+    /**
+     * Returns the first n accounts of {@link #sortByFirstAndLastNames()}.
+     *
+     * @param n max number of accounts to return
+     * @return a list of at most n accounts sorted by first and last names
+     */
+    public List<Account> findFirstByFirstAndLastNames(int n) {
+        return topN(BY_FIRST_AND_LAST_NAMES, n);
     }
 
     /**
@@ -106,7 +183,10 @@ public class CrazyStreams {
      * @return true if there is an account that has an email with provided domain
      */
     public boolean containsAccountWithEmailDomain(String emailDomain) {
-        return accounts.stream().anyMatch(i -> i.getEmail().split("@")[1].equals(emailDomain));
+        if (accounts instanceof AccountIndex) {
+            return !((AccountIndex) accounts).findByEmailDomain(emailDomain).isEmpty();
+        }
+        return accounts.stream().anyMatch(i -> EmailDomains.hasDomain(i.getEmail(), emailDomain));
     }
 
     /**
@@ -117,8 +197,10 @@ public class CrazyStreams {
      * @return account balance
      */
     public BigDecimal getBalanceByEmail(String email) {
-        return accounts.stream()
-                .filter(i -> i.getEmail().equals(email)).findFirst()
+        Optional<Account> account = accounts instanceof AccountIndex
+                ? ((AccountIndex) accounts).findByEmail(email)
+                : accounts.stream().filter(i -> i.getEmail().equals(email)).findFirst();
+        return account
                 .orElseThrow(() -> new EntityNotFoundException("Cannot find Account by email=" + email))
                 .getBalance();
     }
@@ -176,7 +258,8 @@ public class CrazyStreams {
      */
     public Map<Month, BigDecimal> groupTotalBalanceByCreationMonth() {
         return accounts.stream()
-                .collect(Collectors.groupingBy(i -> i.getCreationDate().getMonth(), Collectors.mapping(Account::getBalance, Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))));
+                .collect(Collectors.groupingBy(i -> i.getCreationDate().getMonth(),
+                        Collectors.mapping(Account::getBalance, BalanceSum.summing())));
     }
 
     /**
@@ -186,11 +269,9 @@ public class CrazyStreams {
      * @return a map where key is a letter and value is its count in all first names
      */
     public Map<Character, Long> getCharacterFrequencyInFirstNames() {
-        List<Character> characters = accounts.stream().map(i -> i.getFirstName().chars().mapToObj(j -> (char) j)).flatMap(i -> i).collect(Collectors.toList());
-        Map<Character, Long> characterLongMap = new HashMap<>();
-        String firstNames = accounts.stream().map(i -> i.getFirstName()).collect(Collectors.joining());
-        characters.forEach(character -> characterLongMap.put(character, firstNames.chars().filter(i -> i == character).count()));
-        return characterLongMap;
+        return partitionedAccounts()
+                .collect(CharacterHistogram::new, (h, i) -> h.add(i.getFirstName()), CharacterHistogram::merge)
+                .toMap();
     }
 
     /**
@@ -201,17 +282,36 @@ public class CrazyStreams {
      * @return a map where key is a letter and value is its count ignoring case in all first and last names
      */
     public Map<Character, Long> getCharacterFrequencyIgnoreCaseInFirstAndLastNames(int nameLengthBound) {
-        List<Character> characters = accounts.stream().map(i -> (i.getFirstName().toLowerCase() + i.getLastName().toLowerCase()).chars().mapToObj(j -> (char) j)).flatMap(i -> i).collect(Collectors.toList());
-        Map<Character, Long> characterLongMap = new HashMap<>();
-        String firstNameLastNames = accounts.stream()
-                .map(i -> (i.getFirstName().length() >= nameLengthBound ? i.getFirstName().toLowerCase() : "") + (i.getLastName().length() >= nameLengthBound ? i.getLastName().toLowerCase() : "")).collect(Collectors.joining());
-        characters.stream().forEach(character -> {
-            if (firstNameLastNames.chars().filter(i -> i == character).count() > 0) {
-                characterLongMap.put(character, firstNameLastNames.chars().filter(i -> i == character).count());
-            }
-        });
-        return characterLongMap;
+        return partitionedAccounts()
+                .collect(CharacterHistogram::new, (h, i) -> {
+                    if (i.getFirstName().length() >= nameLengthBound) {
+                        h.addLowerCase(i.getFirstName());
+                    }
+                    if (i.getLastName().length() >= nameLengthBound) {
+                        h.addLowerCase(i.getLastName());
+                    }
+                }, CharacterHistogram::merge)
+                .toMap();
     }
 
-}
+    /**
+     * Returns a stream of accounts to count chars of. Large collections are split into partitions that are counted
+     * in parallel, each into its own histogram.
+     */
+    private Stream<Account> partitionedAccounts() {
+        return accounts.size() >= PARALLEL_HISTOGRAM_THRESHOLD ? accounts.parallelStream() : accounts.stream();
+    }
 
+    /**
+     * Computes the given statistics in a single pass over accounts. Each statistic of the report is equal to the
+     * result of the corresponding method of this class.
+     *
+     * @param first a statistic to compute
+     * @param rest  other statistics to compute
+     * @return a report that holds requested statistics
+     */
+    public AccountReport report(AccountStatistic first, AccountStatistic... rest) {
+        return accounts.stream().collect(AccountReport.collector(EnumSet.of(first, rest)));
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.bobocode.fp;
+
+/**
+ * {@link EmailDomains} extracts and compares email domains in place, without {@link String#split(String)}, regex, or
+ * substring allocations. A domain is everything after the first {@code @} of an email.
+ */
+final class EmailDomains {
+
+    private EmailDomains() {
+    }
+
+    /**
+     * Returns an index where the domain of an email starts
+     *
+     * @param email an email
+     * @return an index of the first char after {@code @}
+     * @throws IllegalArgumentException if an email has no {@code @}
+     */
+    static int domainStart(String email) {
+        int at = email.indexOf('@');
+        if (at < 0) {
+            throw new IllegalArgumentException("Email " + email + " has no domain");
+        }
+        return at + 1;
+    }
+
+    /**
+     * Checks if an email has exactly a given domain
+     *
+     * @param email  an email
+     * @param domain a domain like "gmail.com"
+     * @return {@code true} if the domain of an email is equal to the given one
+     */
+    static boolean hasDomain(String email, String domain) {
+        int start = domainStart(email);
+        return email.length() - start == domain.length() && email.regionMatches(start, domain, 0, domain.length());
+    }
+
+    /**
+     * {@link Interner} returns a single shared {@link String} for every distinct domain. A domain is looked up directly
+     * in the email by an open-addressing table, so a substring is allocated only the first time a domain is seen. An
+     * interner is not thread-safe.
+     */
+    static class Interner {
+        private String[] table = new String[16];
+        private int size;
+
+        /**
+         * Returns a shared instance of the domain of an email
+         *
+         * @param email an email
+         * @return the domain of an email
+         */
+        String domainOf(String email) {
+            return intern(email, domainStart(email));
+        }
+
+        /**
+         * Returns a shared instance of a domain, and stores the given instance if the domain is not seen yet
+         *
+         * @param domain a domain like "gmail.com"
+         * @return a shared instance of the domain
+         */
+        String intern(String domain) {
+            return intern(domain, 0);
+        }
+
+        /**
+         * Returns a number of distinct domains seen by this interner
+         *
+         * @return a number of stored domains
+         */
+        int size() {
+            return size;
+        }
+
+        private String intern(String source, int start) {
+            int length = source.length() - start;
+            int mask = table.length - 1;
+            for (int i = hash(source, start) & mask; ; i = (i + 1) & mask) {
+                String domain = table[i];
+                if (domain == null) {
+                    domain = source.substring(start);
+                    table[i] = domain;
+                    if (++size * 2 > table.length) {
+                        resize();
+                    }
+                    return domain;
+                }
+                if (domain.length() == length && source.regionMatches(start, domain, 0, length)) {
+                    return domain;
+                }
+            }
+        }
+
+        /**
+         * Computes the same hash as {@link String#hashCode()} of the domain, so stored domains can be rehashed with it
+         */
+        private static int hash(String source, int start) {
+            int hash = 0;
+            for (int i = start; i < source.length(); i++) {
+                hash = 31 * hash + source.charAt(i);
+            }
+            return spread(hash);
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        private void resize() {
+            String[] newTable = new String[table.length * 2];
+            int mask = newTable.length - 1;
+            for (String domain : table) {
+                if (domain != null) {
+                    int i = spread(domain.hashCode()) & mask;
+                    while (newTable[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    newTable[i] = domain;
+                }
+            }
+            table = newTable;
+        }
+    }
+}
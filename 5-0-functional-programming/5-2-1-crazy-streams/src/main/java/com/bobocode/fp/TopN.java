@@ -0,0 +1,92 @@
+package com.bobocode.fp;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * {@link TopN} keeps the first n elements of a stream in the order of a comparator, in a bounded heap whose head is
+ * the worst kept element. Collecting N elements takes O(N log n) time and O(n) memory instead of sorting all of them.
+ * <p>
+ * The result is the same as of {@code sorted(comparator).limit(n)}: equal elements keep their encounter order, also
+ * when partitions of a parallel stream are combined.
+ *
+ * @param <T> a type of elements
+ */
+class TopN<T> {
+    private final Comparator<? super T> comparator;
+    private final int n;
+    private final PriorityQueue<Entry<T>> heap;
+    private long nextSequence;
+
+    private TopN(Comparator<? super T> comparator, int n) {
+        this.comparator = comparator;
+        this.n = n;
+        Comparator<Entry<T>> entryComparator = (a, b) -> compare(a, b);
+        this.heap = new PriorityQueue<>(Math.min(n, 1024) + 1, entryComparator.reversed());
+    }
+
+    /**
+     * Creates a collector of the first n elements
+     *
+     * @param comparator an order of elements
+     * @param n          max number of elements to collect
+     * @param <T>        a type of elements
+     * @return a collector that returns at most n first elements, in the order of the comparator
+     */
+    static <T> Collector<T, ?, List<T>> collector(Comparator<? super T> comparator, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Number of elements should not be negative");
+        }
+        return Collector.of(() -> new TopN<T>(comparator, n), TopN::add, TopN::combine, TopN::toList);
+    }
+
+    void add(T element) {
+        if (n == 0) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(element, nextSequence++);
+        if (heap.size() < n) {
+            heap.offer(entry);
+        } else if (compare(entry, heap.peek()) < 0) {
+            heap.poll();
+            heap.offer(entry);
+        }
+    }
+
+    /**
+     * Adds elements of a later part of the stream. They get sequence numbers after elements of this part, so ties
+     * are still resolved by the encounter order.
+     */
+    TopN<T> combine(TopN<T> other) {
+        other.toList().forEach(this::add);
+        return this;
+    }
+
+    List<T> toList() {
+        List<Entry<T>> entries = new ArrayList<>(heap);
+        entries.sort(this::compare);
+        List<T> elements = new ArrayList<>(entries.size());
+        for (Entry<T> entry : entries) {
+            elements.add(entry.element);
+        }
+        return elements;
+    }
+
+    private int compare(Entry<T> a, Entry<T> b) {
+        int result = comparator.compare(a.element, b.element);
+        return result != 0 ? result : Long.compare(a.sequence, b.sequence);
+    }
+
+    private static class Entry<T> {
+        private final T element;
+        private final long sequence;
+
+        Entry(T element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.bobocode.fp;
+
+import com.bobocode.fp.exception.EntityNotFoundException;
+import com.bobocode.model.Account;
+import com.bobocode.model.Sex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A test class for {@link AccountIndex}. Lookups of {@link CrazyStreams} over an index are checked against the same
+ * lookups over a plain list.
+ */
+class AccountIndexTest {
+
+    private static final List<Account> accounts = Arrays.asList(
+            new Account(1L, "Justin", "Butler", "justin.butler@gmail.com",
+                    LocalDate.parse("2003-04-17"), Sex.MALE, LocalDate.parse("2016-06-13"), BigDecimal.valueOf(172966)),
+            new Account(2L, "Olivia", "Cardenas", "cardenas@mail.com",
+                    LocalDate.parse("1930-01-19"), Sex.FEMALE, LocalDate.parse("2014-06-21"),
+                    BigDecimal.valueOf(38029)),
+            new Account(3L, "Nolan", "Donovan", "nolandonovan@gmail.com",
+                    LocalDate.parse("1925-04-19"), Sex.MALE, LocalDate.parse("2011-03-10"), BigDecimal.valueOf(13889)),
+            new Account(4L, "Lucas", "Lynn", "lucas.lynn@yahoo.com",
+                    LocalDate.parse("1987-05-25"), Sex.MALE, LocalDate.parse("2009-03-05"), BigDecimal.valueOf(16980))
+    );
+
+    private AccountIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AccountIndex(accounts);
+    }
+
+    @Test
+    void findByIndexes() {
+        assertThat(index).containsExactlyElementsOf(accounts);
+        assertThat(index.findByEmail("cardenas@mail.com")).containsSame(accounts.get(1));
+        assertThat(index.findByEmail("nobody@mail.com")).isEmpty();
+        assertThat(index.findById(3L)).containsSame(accounts.get(2));
+        assertThat(index.findByBirthdayMonth(Month.APRIL)).containsExactly(accounts.get(0), accounts.get(2));
+        assertThat(index.findByBirthdayMonth(Month.JUNE)).isEmpty();
+        assertThat(index.findByEmailDomain("gmail.com")).containsExactly(accounts.get(0), accounts.get(2));
+        assertThat(index.getEmailDomains()).isEqualTo(Set.of("gmail.com", "mail.com", "yahoo.com"));
+        assertThat(index.contains(accounts.get(3))).isTrue();
+    }
+
+    @Test
+    void crazyStreamsOverIndexReturnSameResults() {
+        CrazyStreams streams = new CrazyStreams(accounts);
+        CrazyStreams indexedStreams = new CrazyStreams(index);
+
+        for (Month month : Month.values()) {
+            assertThat(indexedStreams.findAccountsByBirthdayMonth(month))
+                    .isEqualTo(streams.findAccountsByBirthdayMonth(month));
+        }
+        assertThat(indexedStreams.groupAccountsByEmailDomain()).isEqualTo(streams.groupAccountsByEmailDomain());
+        assertThat(indexedStreams.containsAccountWithEmailDomain("yahoo.com")).isTrue();
+        assertThat(indexedStreams.containsAccountWithEmailDomain("ukr.net")).isFalse();
+        assertThat(indexedStreams.getBalanceByEmail("lucas.lynn@yahoo.com")).isEqualTo(BigDecimal.valueOf(16980));
+        assertThatThrownBy(() -> indexedStreams.getBalanceByEmail("nobody@mail.com"))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Cannot find Account by email=nobody@mail.com");
+    }
+
+    @Test
+    void addUpdatesIndexes() {
+        Account account = new Account(5L, "Ada", "Moss", "ada@ukr.net",
+                LocalDate.parse("1990-04-01"), Sex.FEMALE, LocalDate.parse("2015-01-01"), BigDecimal.valueOf(100));
+        CrazyStreams indexedStreams = new CrazyStreams(index);
+
+        index.add(account);
+
+        assertThat(index).hasSize(5);
+        assertThat(index.findById(5L)).containsSame(account);
+        assertThat(indexedStreams.findAccountsByBirthdayMonth(Month.APRIL))
+                .containsExactly(accounts.get(0), accounts.get(2), account);
+        assertThat(indexedStreams.containsAccountWithEmailDomain("ukr.net")).isTrue();
+        assertThat(indexedStreams.getBalanceByEmail("ada@ukr.net")).isEqualTo(BigDecimal.valueOf(100));
+    }
+
+    @Test
+    void removeUpdatesIndexes() {
+        CrazyStreams indexedStreams = new CrazyStreams(index);
+
+        assertThat(index.remove(accounts.get(3))).isTrue();
+        assertThat(index.remove(accounts.get(3))).isFalse();
+
+        assertThat(index).containsExactly(accounts.get(0), accounts.get(1), accounts.get(2));
+        assertThat(index.findById(4L)).isEmpty();
+        assertThat(index.contains(accounts.get(3))).isFalse();
+        assertThat(indexedStreams.findAccountsByBirthdayMonth(Month.MAY)).isEmpty();
+        assertThat(indexedStreams.containsAccountWithEmailDomain("yahoo.com")).isFalse();
+        assertThat(index.getEmailDomains()).doesNotContain("yahoo.com");
+    }
+
+    @Test
+    void iteratorRemoveUpdatesIndexes() {
+        for (Iterator<Account> iterator = index.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().getEmail().endsWith("@gmail.com")) {
+                iterator.remove();
+            }
+        }
+
+        assertThat(index).containsExactly(accounts.get(1), accounts.get(3));
+        assertThat(index.findByEmailDomain("gmail.com")).isEmpty();
+        assertThat(index.findByBirthdayMonth(Month.APRIL)).isEmpty();
+        assertThat(index.findById(1L)).isEmpty();
+    }
+
+    @Test
+    void removeUnindexesOnlyRemovedAccountOfSameEmail() {
+        Account first = accounts.get(0);
+        Account namesake = new Account(6L, "Justin", "Butler", first.getEmail(),
+                LocalDate.parse("1990-05-01"), Sex.MALE, LocalDate.parse("2015-01-01"), BigDecimal.valueOf(5));
+        index.add(namesake);
+
+        index.remove(namesake); // accounts are equal by email, so the first of them is removed
+
+        assertThat(index).hasSize(4);
+        assertThat(index.findByEmail(first.getEmail())).containsSame(namesake);
+        assertThat(index.findById(1L)).isEmpty();
+        assertThat(index.findById(6L)).containsSame(namesake);
+        assertThat(index.findByBirthdayMonth(Month.MAY)).containsExactly(accounts.get(3), namesake);
+    }
+
+    @Test
+    void clearRemovesAllIndexes() {
+        index.clear();
+
+        assertThat(index).isEmpty();
+        assertThat(index.getEmailDomains()).isEmpty();
+        assertThat(index.findByEmail("cardenas@mail.com")).isEmpty();
+        assertThat(new CrazyStreams(index).findAccountsByBirthdayMonth(Month.APRIL)).isEqualTo(new ArrayList<>());
+    }
+
+    @Test
+    void domainChurnKeepsDomainIndex() {
+        List<Account> churned = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            churned.add(new Account(100 + i, "Temp", "User", "temp@domain" + i + ".com",
+                    LocalDate.parse("2000-01-01"), Sex.FEMALE, LocalDate.parse("2020-01-01"), BigDecimal.ONE));
+        }
+        index.addAll(churned);
+        index.removeAll(churned);
+        index.add(churned.get(0));
+
+        assertThat(index.getEmailDomains()).isEqualTo(Set.of("gmail.com", "mail.com", "yahoo.com", "domain0.com"));
+        assertThat(index.findByEmailDomain("gmail.com")).containsExactly(accounts.get(0), accounts.get(2));
+        assertThat(index.findByEmailDomain("domain0.com")).containsExactly(churned.get(0));
+        assertThat(index.findByEmailDomain("domain1.com")).isEmpty();
+    }
+}
@@ -0,0 +1,181 @@
+package com.bobocode.fp;
+
+import com.bobocode.fp.exception.EntityNotFoundException;
+import com.bobocode.model.Account;
+import com.bobocode.model.Sex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A test class for {@link ColumnarCrazyStreams}. Every query is checked against the same query of {@link CrazyStreams}.
+ */
+class ColumnarCrazyStreamsTest {
+
+    private static final List<Account> accounts = Arrays.asList(
+            new Account(1L, "Justin", "Butler", "justin.butler@gmail.com",
+                    LocalDate.parse("2003-04-17"), Sex.MALE, LocalDate.parse("2016-06-13"), BigDecimal.valueOf(172966)),
+            new Account(2L, "Olivia", "Cardenas", "cardenas@mail.com",
+                    LocalDate.parse("1930-01-19"), Sex.FEMALE, LocalDate.parse("2014-06-21"),
+                    new BigDecimal("38029.5")),
+            new Account(3L, "Nolan", "Donovan", "nolandonovan@gmail.com",
+                    LocalDate.parse("1925-04-19"), Sex.MALE, LocalDate.parse("2011-03-10"), new BigDecimal("13889.10")),
+            new Account(4L, "Lucas", "Lynn", "lucas.lynn@yahoo.com",
+                    LocalDate.parse("1987-05-25"), Sex.MALE, LocalDate.parse("2009-03-05"), BigDecimal.valueOf(16980)),
+            new Account(5L, "Justin", "Lynn", "justin.lynn@yahoo.com",
+                    LocalDate.parse("1990-04-01"), Sex.MALE, LocalDate.parse("2011-12-31"), BigDecimal.valueOf(172966))
+    );
+
+    private CrazyStreams streams;
+    private ColumnarCrazyStreams columnarStreams;
+
+    @BeforeEach
+    void setUp() {
+        streams = new CrazyStreams(accounts);
+        columnarStreams = new ColumnarCrazyStreams(accounts);
+    }
+
+    @Test
+    void findRichestPerson() {
+        assertThat(columnarStreams.findRichestPerson()).containsSame(accounts.get(0));
+    }
+
+    @Test
+    void findRichestPersonOfEmptyColumns() {
+        assertThat(new ColumnarCrazyStreams(Collections.emptyList()).findRichestPerson()).isEmpty();
+    }
+
+    @Test
+    void findAccountsByBirthdayMonth() {
+        for (Month month : Month.values()) {
+            assertThat(columnarStreams.findAccountsByBirthdayMonth(month))
+                    .isEqualTo(streams.findAccountsByBirthdayMonth(month));
+        }
+    }
+
+    @Test
+    void partitionMaleAccounts() {
+        assertThat(columnarStreams.partitionMaleAccounts()).isEqualTo(streams.partitionMaleAccounts());
+    }
+
+    @Test
+    void groupAccountsByEmailDomain() {
+        assertThat(columnarStreams.groupAccountsByEmailDomain()).isEqualTo(streams.groupAccountsByEmailDomain());
+    }
+
+    @Test
+    void getNumOfLettersInFirstAndLastNames() {
+        assertThat(columnarStreams.getNumOfLettersInFirstAndLastNames())
+                .isEqualTo(streams.getNumOfLettersInFirstAndLastNames());
+    }
+
+    @Test
+    void calculateTotalBalanceKeepsScale() {
+        BigDecimal totalBalance = columnarStreams.calculateTotalBalance();
+
+        assertThat(totalBalance).isEqualTo(streams.calculateTotalBalance());
+        assertThat(totalBalance.scale()).isEqualTo(2);
+    }
+
+    @Test
+    void calculateTotalBalanceOfCentsThatOverflowLong() {
+        Account account = new Account(1L, "Justin", "Butler", "justin.butler@gmail.com", LocalDate.parse("2003-04-17"),
+                Sex.MALE, LocalDate.parse("2016-06-13"), BigDecimal.valueOf(Long.MAX_VALUE / 100));
+        Account other = new Account(2L, "Olivia", "Cardenas", "cardenas@mail.com", LocalDate.parse("1930-01-19"),
+                Sex.FEMALE, LocalDate.parse("2014-06-21"), BigDecimal.valueOf(Long.MAX_VALUE / 100));
+        List<Account> richAccounts = Arrays.asList(account, other);
+
+        ColumnarCrazyStreams richStreams = new ColumnarCrazyStreams(richAccounts);
+
+        assertThat(richStreams.calculateTotalBalance())
+                .isEqualTo(new CrazyStreams(richAccounts).calculateTotalBalance());
+        assertThat(richStreams.groupTotalBalanceByCreationMonth())
+                .isEqualTo(new CrazyStreams(richAccounts).groupTotalBalanceByCreationMonth());
+    }
+
+    @Test
+    void sortByFirstAndLastNames() {
+        assertThat(columnarStreams.sortByFirstAndLastNames()).isEqualTo(streams.sortByFirstAndLastNames());
+    }
+
+    @Test
+    void containsAccountWithEmailDomain() {
+        assertThat(columnarStreams.containsAccountWithEmailDomain("gmail.com")).isTrue();
+        assertThat(columnarStreams.containsAccountWithEmailDomain("yahoo.com")).isTrue();
+        assertThat(columnarStreams.containsAccountWithEmailDomain("ukr.net")).isFalse();
+        assertThat(columnarStreams.containsAccountWithEmailDomain("mail.co")).isFalse();
+    }
+
+    @Test
+    void getBalanceByEmail() {
+        for (Account account : accounts) {
+            assertThat(columnarStreams.getBalanceByEmail(account.getEmail()))
+                    .isEqualTo(streams.getBalanceByEmail(account.getEmail()));
+        }
+    }
+
+    @Test
+    void getBalanceByEmailThrowsExceptionWhenEmailNotFound() {
+        assertThatThrownBy(() -> columnarStreams.getBalanceByEmail("justin.butler@yahoo.com"))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Cannot find Account by email=justin.butler@yahoo.com");
+        assertThatThrownBy(() -> columnarStreams.getBalanceByEmail("justin.butler@ukr.net"))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void collectAccountsById() {
+        assertThat(columnarStreams.collectAccountsById()).isEqualTo(streams.collectAccountsById());
+    }
+
+    @Test
+    void collectBalancesByEmailForAccountsCreatedOn() {
+        for (int year = 2008; year <= 2017; year++) {
+            assertThat(columnarStreams.collectBalancesByEmailForAccountsCreatedOn(year))
+                    .isEqualTo(streams.collectBalancesByEmailForAccountsCreatedOn(year));
+        }
+    }
+
+    @Test
+    void groupFirstNamesByLastNames() {
+        assertThat(columnarStreams.groupFirstNamesByLastNames()).isEqualTo(streams.groupFirstNamesByLastNames());
+    }
+
+    @Test
+    void groupCommaSeparatedFirstNamesByBirthdayMonth() {
+        assertThat(columnarStreams.groupCommaSeparatedFirstNamesByBirthdayMonth())
+                .isEqualTo(streams.groupCommaSeparatedFirstNamesByBirthdayMonth());
+    }
+
+    @Test
+    void groupTotalBalanceByCreationMonth() {
+        Map<Month, BigDecimal> balanceByMonth = columnarStreams.groupTotalBalanceByCreationMonth();
+
+        assertThat(balanceByMonth).isEqualTo(streams.groupTotalBalanceByCreationMonth());
+        assertThat(balanceByMonth.get(Month.JUNE).scale()).isEqualTo(1);
+    }
+
+    @Test
+    void getCharacterFrequencyInFirstNames() {
+        assertThat(columnarStreams.getCharacterFrequencyInFirstNames())
+                .isEqualTo(streams.getCharacterFrequencyInFirstNames());
+    }
+
+    @Test
+    void getCharacterFrequencyIgnoreCaseInFirstAndLastNames() {
+        for (int nameLengthBound = 0; nameLengthBound <= 8; nameLengthBound++) {
+            assertThat(columnarStreams.getCharacterFrequencyIgnoreCaseInFirstAndLastNames(nameLengthBound))
+                    .isEqualTo(streams.getCharacterFrequencyIgnoreCaseInFirstAndLastNames(nameLengthBound));
+        }
+    }
+}
@@ -12,6 +12,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -264,6 +265,197 @@ public class CrazyStreamsTest {
             }
         }
     }
-}
 
+    @Test
+    @Order(18)
+    void reportMatchesIndividualMethods() {
+        AccountReport report = streams.report(AccountStatistic.RICHEST_PERSON, AccountStatistic.values());
+
+        assertEquals(EnumSet.allOf(AccountStatistic.class), report.getStatistics());
+        assertEquals(streams.findRichestPerson(), report.getRichestPerson());
+        assertEquals(streams.partitionMaleAccounts(), report.getMaleAccountsPartition());
+        assertEquals(streams.groupAccountsByEmailDomain(), report.getAccountsByEmailDomain());
+        assertEquals(streams.getNumOfLettersInFirstAndLastNames(), report.getNumOfLettersInFirstAndLastNames());
+        assertEquals(streams.calculateTotalBalance(), report.getTotalBalance());
+        assertEquals(streams.collectAccountsById(), report.getAccountsById());
+        assertEquals(streams.groupFirstNamesByLastNames(), report.getFirstNamesByLastNames());
+        assertEquals(streams.groupCommaSeparatedFirstNamesByBirthdayMonth(),
+                report.getCommaSeparatedFirstNamesByBirthdayMonth());
+        assertEquals(streams.groupTotalBalanceByCreationMonth(), report.getTotalBalanceByCreationMonth());
+        assertEquals(streams.getCharacterFrequencyInFirstNames(), report.getCharacterFrequencyInFirstNames());
+    }
+
+    @Test
+    @Order(19)
+    void reportOfParallelStreamMatchesIndividualMethods() {
+        List<Account> manyAccounts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            manyAccounts.addAll(accounts);
+        }
+        CrazyStreams manyAccountStreams = new CrazyStreams(manyAccounts);
+
+        AccountReport report = manyAccounts.parallelStream().collect(AccountReport.collector(
+                EnumSet.of(AccountStatistic.TOTAL_BALANCE, AccountStatistic.MALE_ACCOUNTS_PARTITION,
+                        AccountStatistic.COMMA_SEPARATED_FIRST_NAMES_BY_BIRTHDAY_MONTH, AccountStatistic.RICHEST_PERSON)));
+
+        assertEquals(manyAccountStreams.calculateTotalBalance(), report.getTotalBalance());
+        assertEquals(manyAccountStreams.groupCommaSeparatedFirstNamesByBirthdayMonth(),
+                report.getCommaSeparatedFirstNamesByBirthdayMonth());
+        assertEquals(manyAccountStreams.partitionMaleAccounts(), report.getMaleAccountsPartition());
+        assertSame(manyAccountStreams.findRichestPerson().get(), report.getRichestPerson().get());
+    }
+
+    @Test
+    @Order(20)
+    void reportThrowsExceptionWhenStatisticWasNotRequested() {
+        AccountReport report = streams.report(AccountStatistic.TOTAL_BALANCE);
+
+        assertThrows(IllegalStateException.class, report::getRichestPerson);
+    }
+
+    @Test
+    @Order(21)
+    void groupAccountsByEmailDomainDoesNotMixSubstringDomains() {
+        Account mailAccount = new Account(5L, "Ada", "Moss", "ada@mail.com",
+                LocalDate.parse("1990-02-01"), Sex.FEMALE, LocalDate.parse("2015-01-01"), BigDecimal.valueOf(100));
+        Account mailUaAccount = new Account(6L, "Ivan", "Moss", "ivan@mail.com.ua",
+                LocalDate.parse("1991-02-01"), Sex.MALE, LocalDate.parse("2015-01-01"), BigDecimal.valueOf(200));
+        CrazyStreams domainStreams = new CrazyStreams(List.of(mailAccount, mailUaAccount));
+
+        Map<String, List<Account>> accountsByDomain = domainStreams.groupAccountsByEmailDomain();
+
+        assertEquals(List.of(mailAccount), accountsByDomain.get("mail.com"));
+        assertEquals(List.of(mailUaAccount), accountsByDomain.get("mail.com.ua"));
+        assertTrue(domainStreams.containsAccountWithEmailDomain("mail.com.ua"));
+        assertFalse(domainStreams.containsAccountWithEmailDomain("com.ua"));
+    }
+
+    @Test
+    @Order(22)
+    void groupAccountsByEmailDomainConcurrently() {
+        List<Account> manyAccounts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            manyAccounts.addAll(accounts);
+        }
+        CrazyStreams manyAccountStreams = new CrazyStreams(manyAccounts);
+
+        Map<String, List<Account>> expected = manyAccountStreams.groupAccountsByEmailDomain();
+        Map<String, List<Account>> actual = manyAccountStreams.groupAccountsByEmailDomainConcurrently();
 
+        assertEquals(expected.keySet(), actual.keySet());
+        expected.forEach((domain, domainAccounts) ->
+                assertThat(actual.get(domain)).containsExactlyInAnyOrderElementsOf(domainAccounts));
+    }
+
+    @Test
+    @Order(23)
+    void getCharacterFrequencyInParallelOverManyAccounts() {
+        List<Account> manyAccounts = new ArrayList<>();
+        for (int i = 0; i < 25_000; i++) {
+            manyAccounts.addAll(accounts);
+        }
+        CrazyStreams manyAccountStreams = new CrazyStreams(manyAccounts);
+        Map<Character, Long> expectedFrequencies = new HashMap<>();
+        streams.getCharacterFrequencyInFirstNames().forEach((c, count) -> expectedFrequencies.put(c, count * 25_000));
+
+        assertEquals(expectedFrequencies, manyAccountStreams.getCharacterFrequencyInFirstNames());
+        assertEquals(buildMap(manyAccounts, 5),
+                manyAccountStreams.getCharacterFrequencyIgnoreCaseInFirstAndLastNames(5));
+    }
+
+    @Test
+    @Order(24)
+    void getCharacterFrequencyOfNonLatinNames() {
+        Account account = new Account(7L, "Ірина", "Ґудзь", "iryna@ukr.net",
+                LocalDate.parse("1995-08-12"), Sex.FEMALE, LocalDate.parse("2019-01-01"), BigDecimal.valueOf(10));
+        CrazyStreams nonLatinStreams = new CrazyStreams(List.of(account));
+
+        assertEquals(Map.of('І', 1L, 'р', 1L, 'и', 1L, 'н', 1L, 'а', 1L),
+                nonLatinStreams.getCharacterFrequencyInFirstNames());
+        assertEquals(buildMap(List.of(account), 2),
+                nonLatinStreams.getCharacterFrequencyIgnoreCaseInFirstAndLastNames(2));
+    }
+
+    @Test
+    @Order(25)
+    void calculateTotalBalanceOfMixedScalesEqualsBigDecimalSum() {
+        List<BigDecimal> balances = List.of(new BigDecimal("10.5"), new BigDecimal("0.25"), new BigDecimal("1E+3"),
+                new BigDecimal("0.125"), BigDecimal.valueOf(7));
+        List<Account> scaledAccounts = new ArrayList<>();
+        BigDecimal expectedTotal = BigDecimal.ZERO;
+        for (int i = 0; i < balances.size(); i++) {
+            scaledAccounts.add(new Account((long) i, "Ada", "Moss", "ada" + i + "@mail.com",
+                    LocalDate.parse("1990-02-01"), Sex.FEMALE, LocalDate.parse("2015-01-01"), balances.get(i)));
+            expectedTotal = expectedTotal.add(balances.get(i));
+        }
+        CrazyStreams scaledStreams = new CrazyStreams(scaledAccounts);
+
+        BigDecimal totalBalance = scaledStreams.calculateTotalBalance();
+
+        assertEquals(expectedTotal, totalBalance);
+        assertEquals(Map.of(Month.JANUARY, expectedTotal), scaledStreams.groupTotalBalanceByCreationMonth());
+        assertEquals(expectedTotal, scaledStreams.report(AccountStatistic.TOTAL_BALANCE).getTotalBalance());
+    }
+
+    @Test
+    @Order(26)
+    void calculateTotalBalanceWhenCentsOverflowLong() {
+        BigDecimal balance = BigDecimal.valueOf(Long.MAX_VALUE / 100);
+        List<Account> richAccounts = List.of(
+                new Account(1L, "Ada", "Moss", "ada@mail.com",
+                        LocalDate.parse("1990-02-01"), Sex.FEMALE, LocalDate.parse("2015-01-01"), balance),
+                new Account(2L, "Ivan", "Moss", "ivan@mail.com",
+                        LocalDate.parse("1991-02-01"), Sex.MALE, LocalDate.parse("2015-01-02"), balance),
+                new Account(3L, "Olga", "Moss", "olga@mail.com",
+                        LocalDate.parse("1992-02-01"), Sex.FEMALE, LocalDate.parse("2015-01-03"), BigDecimal.ONE));
+        BigDecimal expectedTotal = balance.add(balance).add(BigDecimal.ONE);
+        CrazyStreams richStreams = new CrazyStreams(richAccounts);
+
+        assertEquals(expectedTotal, richStreams.calculateTotalBalance());
+        assertEquals(Map.of(Month.JANUARY, expectedTotal), richStreams.groupTotalBalanceByCreationMonth());
+    }
+
+    @Test
+    @Order(27)
+    void sortByFirstAndLastNamesKeepsOrderOfSameNames() {
+        Account otherJustin = new Account(5L, "Justin", "Butler", "other.justin@gmail.com",
+                LocalDate.parse("1990-02-01"), Sex.MALE, LocalDate.parse("2015-01-01"), BigDecimal.valueOf(100));
+        List<Account> namesakeAccounts = new ArrayList<>(accounts);
+        namesakeAccounts.add(otherJustin);
+
+        List<Account> sortedList = new CrazyStreams(namesakeAccounts).sortByFirstAndLastNames();
+
+        assertEquals(List.of(accounts.get(0), otherJustin, accounts.get(3), accounts.get(2), accounts.get(1)),
+                sortedList);
+    }
+
+    @Test
+    @Order(28)
+    void topN() {
+        assertEquals(List.of(accounts.get(0), accounts.get(1)), streams.findRichestAccounts(2));
+        assertEquals(List.of(accounts.get(0), accounts.get(3), accounts.get(2)),
+                streams.findFirstByFirstAndLastNames(3));
+        assertEquals(streams.sortByFirstAndLastNames(), streams.findFirstByFirstAndLastNames(10));
+        assertEquals(List.of(), streams.findRichestAccounts(0));
+        assertThrows(IllegalArgumentException.class, () -> streams.findRichestAccounts(-1));
+    }
+
+    @Test
+    @Order(29)
+    void topNInParallelKeepsOrderOfEqualAccounts() {
+        List<Account> manyAccounts = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            manyAccounts.add(new Account((long) i, "Name" + i % 7, "Surname" + i % 5, "user" + i + "@gmail.com",
+                    LocalDate.parse("1990-02-01"), Sex.MALE, LocalDate.parse("2015-01-01"),
+                    BigDecimal.valueOf(i % 11)));
+        }
+        manyAccounts.addAll(manyAccounts);
+        CrazyStreams manyAccountStreams = new CrazyStreams(manyAccounts);
+        Comparator<Account> byBalance = Comparator.comparing(Account::getBalance).reversed();
+
+        assertEquals(manyAccounts.stream().sorted(byBalance).limit(100).collect(Collectors.toList()),
+                manyAccountStreams.findRichestAccounts(100));
+        assertEquals(manyAccountStreams.sortByFirstAndLastNames().subList(0, 100),
+                manyAccountStreams.findFirstByFirstAndLastNames(100));
+    }
+}
@@ -1,6 +1,7 @@
 package com.bobocode.fp;
 
 import com.bobocode.data.Accounts;
+import com.bobocode.data.BalanceSum;
 import com.bobocode.fp.exception.AccountNotFoundException;
 import com.bobocode.fp.function.AccountProvider;
 import com.bobocode.fp.function.AccountService;
@@ -191,7 +192,11 @@ public class CrazyOptionals {
      * @return total credit balance
      */
     public static double calculateTotalCreditBalance(List<CreditAccount> accounts) {
-        return accounts.stream().map(i -> i.getCreditBalance().orElse(BigDecimal.ZERO)).reduce((bigDecimal, bigDecimal2) -> bigDecimal.add(bigDecimal2)).orElse(BigDecimal.ZERO).doubleValue();
+        return accounts.stream()
+                .map(CreditAccount::getCreditBalance)
+                .flatMap(Optional::stream)
+                .collect(BalanceSum.summing())
+                .doubleValue();
     }
 }
 
@@ -0,0 +1,225 @@
+package com.bobocode.data;
+
+import com.bobocode.model.Account;
+import com.bobocode.model.Sex;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link AccountColumns} is a read-only columnar (struct-of-arrays) copy of a collection of {@link Account}s for
+ * analytics. Every field is stored in its own primitive array, so an aggregate over one field scans a single compact
+ * array instead of following pointers from every account to its {@link BigDecimal} and {@link LocalDate} objects.
+ * <ul>
+ *     <li>balance is stored in {@code long} cents, along with its original scale</li>
+ *     <li>dates are stored as epoch days, and their months as ordinals</li>
+ *     <li>sex is stored as an ordinal</li>
+ *     <li>first names, last names and email domains are dictionary-encoded into ids</li>
+ * </ul>
+ * Rows keep the iteration order of the collection, and {@link #getAccount(int)} returns the original account of a row.
+ */
+public class AccountColumns {
+    private static final int CENTS_SCALE = 2;
+
+    private final Account[] accounts;
+    private final long[] balanceCents;
+    private final byte[] balanceScales;
+    private final int[] birthdayEpochDays;
+    private final byte[] birthdayMonths;
+    private final int[] creationEpochDays;
+    private final byte[] creationMonths;
+    private final byte[] sexOrdinals;
+    private final int[] firstNameIds;
+    private final int[] lastNameIds;
+    private final int[] emailDomainIds;
+    private final Dictionary firstNames = new Dictionary();
+    private final Dictionary lastNames = new Dictionary();
+    private final Dictionary emailDomains = new Dictionary();
+
+    private AccountColumns(Collection<? extends Account> source) {
+        int size = source.size();
+        accounts = new Account[size];
+        balanceCents = new long[size];
+        balanceScales = new byte[size];
+        birthdayEpochDays = new int[size];
+        birthdayMonths = new byte[size];
+        creationEpochDays = new int[size];
+        creationMonths = new byte[size];
+        sexOrdinals = new byte[size];
+        firstNameIds = new int[size];
+        lastNameIds = new int[size];
+        emailDomainIds = new int[size];
+        int row = 0;
+        for (Account account : source) {
+            accounts[row] = account;
+            setBalance(row, account.getBalance());
+            birthdayEpochDays[row] = (int) account.getBirthday().toEpochDay();
+            birthdayMonths[row] = (byte) account.getBirthday().getMonth().ordinal();
+            creationEpochDays[row] = (int) account.getCreationDate().toEpochDay();
+            creationMonths[row] = (byte) account.getCreationDate().getMonth().ordinal();
+            sexOrdinals[row] = (byte) account.getSex().ordinal();
+            firstNameIds[row] = firstNames.encode(account.getFirstName());
+            lastNameIds[row] = lastNames.encode(account.getLastName());
+            String email = account.getEmail();
+            emailDomainIds[row] = emailDomains.encode(email.substring(email.indexOf('@') + 1));
+            row++;
+        }
+    }
+
+    /**
+     * Converts accounts into columns
+     *
+     * @param accounts accounts to convert
+     * @return columns of the accounts
+     * @throws IllegalArgumentException if a balance has a scale greater than two or does not fit in {@code long}
+     *                                  cents
+     */
+    public static AccountColumns of(Collection<? extends Account> accounts) {
+        return new AccountColumns(accounts);
+    }
+
+    private void setBalance(int row, BigDecimal balance) {
+        if (balance.scale() > CENTS_SCALE || balance.scale() < Byte.MIN_VALUE) {
+            throw new IllegalArgumentException("Balance " + balance + " cannot be stored in cents");
+        }
+        try {
+            balanceCents[row] = balance.movePointRight(CENTS_SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Balance " + balance + " cannot be stored in cents", e);
+        }
+        balanceScales[row] = (byte) balance.scale();
+    }
+
+    public int size() {
+        return accounts.length;
+    }
+
+    public Account getAccount(int row) {
+        return accounts[row];
+    }
+
+    public long getBalanceCents(int row) {
+        return balanceCents[row];
+    }
+
+    /**
+     * Returns a scale of the original balance, that is a scale of a {@link BigDecimal} sum of balances
+     *
+     * @param row a row
+     * @return a scale that is not greater than 2
+     */
+    public int getBalanceScale(int row) {
+        return balanceScales[row];
+    }
+
+    public int getBirthdayEpochDay(int row) {
+        return birthdayEpochDays[row];
+    }
+
+    public int getBirthdayMonthOrdinal(int row) {
+        return birthdayMonths[row];
+    }
+
+    public int getCreationEpochDay(int row) {
+        return creationEpochDays[row];
+    }
+
+    public int getCreationMonthOrdinal(int row) {
+        return creationMonths[row];
+    }
+
+    public int getSexOrdinal(int row) {
+        return sexOrdinals[row];
+    }
+
+    public int getFirstNameId(int row) {
+        return firstNameIds[row];
+    }
+
+    public int getLastNameId(int row) {
+        return lastNameIds[row];
+    }
+
+    public int getEmailDomainId(int row) {
+        return emailDomainIds[row];
+    }
+
+    public Dictionary getFirstNames() {
+        return firstNames;
+    }
+
+    public Dictionary getLastNames() {
+        return lastNames;
+    }
+
+    public Dictionary getEmailDomains() {
+        return emailDomains;
+    }
+
+    /**
+     * Converts cents back to a {@link BigDecimal} of a given scale
+     *
+     * @param cents an amount in cents
+     * @param scale a scale of the result, that is not greater than 2
+     * @return an amount
+     */
+    public static BigDecimal toBalance(long cents, int scale) {
+        return BigDecimal.valueOf(cents, CENTS_SCALE).setScale(scale);
+    }
+
+    public static Month toMonth(int ordinal) {
+        return Month.of(ordinal + 1);
+    }
+
+    public static Sex toSex(int ordinal) {
+        return Sex.values()[ordinal];
+    }
+
+    /**
+     * {@link Dictionary} maps distinct strings of a column to dense ids, in the order they first appear
+     */
+    public static class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        private int encode(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = values.size();
+                values.add(value);
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        /**
+         * Returns a string by its id
+         *
+         * @param id an id
+         * @return a string
+         */
+        public String get(int id) {
+            return values.get(id);
+        }
+
+        /**
+         * Returns an id of a string
+         *
+         * @param value a string
+         * @return an id, or {@code -1} if no row has such string
+         */
+        public int idOf(String value) {
+            return ids.getOrDefault(value, -1);
+        }
+
+        public int size() {
+            return values.size();
+        }
+    }
+}
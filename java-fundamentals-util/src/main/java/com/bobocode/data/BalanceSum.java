@@ -0,0 +1,94 @@
+package com.bobocode.data;
+
+import java.math.BigDecimal;
+import java.util.stream.Collector;
+
+/**
+ * {@link BalanceSum} is a mutable sum of balances, that is equal to the sum made by {@link BigDecimal#add(BigDecimal)}
+ * starting from {@link BigDecimal#ZERO}, including its scale.
+ * <p>
+ * While all added balances have a scale from 0 to 2 and the sum fits in {@code long} cents, the sum is kept in cents
+ * and no objects are allocated per balance (a balance of scale 0 is read without allocation, a balance of scale 1 or 2
+ * allocates its unscaled value only). Once a balance does not fit or the sum overflows, the sum switches to
+ * {@link BigDecimal} for all remaining balances.
+ */
+public class BalanceSum {
+    private static final int CENTS_SCALE = 2;
+    private static final int MAX_FAST_PRECISION = 16;
+    private static final long[] CENTS_MULTIPLIERS = {100, 10, 1};
+
+    private long cents;
+    private int scale;
+    private BigDecimal total;
+
+    /**
+     * Creates a collector that sums balances into a {@link BalanceSum}
+     *
+     * @return a collector that returns the same result as reducing with {@link BigDecimal#add(BigDecimal)}
+     */
+    public static Collector<BigDecimal, ?, BigDecimal> summing() {
+        return Collector.of(BalanceSum::new, BalanceSum::add, BalanceSum::combine, BalanceSum::toBigDecimal);
+    }
+
+    /**
+     * Adds a balance to the sum
+     *
+     * @param balance a balance to add
+     */
+    public void add(BigDecimal balance) {
+        int balanceScale = balance.scale();
+        if (total == null && balanceScale >= 0 && balanceScale <= CENTS_SCALE
+                && balance.precision() <= MAX_FAST_PRECISION) {
+            long unscaled = balanceScale == 0 ? balance.longValue() : balance.unscaledValue().longValue();
+            addCents(unscaled * CENTS_MULTIPLIERS[balanceScale], balanceScale);
+        } else {
+            switchToBigDecimal();
+            total = total.add(balance);
+        }
+    }
+
+    /**
+     * Adds a balance that is given in cents
+     *
+     * @param balanceCents a balance in cents
+     * @param balanceScale a scale of the balance, that is not greater than 2
+     */
+    public void addCents(long balanceCents, int balanceScale) {
+        if (total == null) {
+            try {
+                cents = Math.addExact(cents, balanceCents);
+                scale = Math.max(scale, balanceScale);
+                return;
+            } catch (ArithmeticException e) {
+                switchToBigDecimal();
+            }
+        }
+        total = total.add(AccountColumns.toBalance(balanceCents, Math.max(balanceScale, 0)));
+    }
+
+    /**
+     * Adds another sum to this one
+     *
+     * @param other a sum to add
+     * @return this sum
+     */
+    public BalanceSum combine(BalanceSum other) {
+        if (other.total == null) {
+            addCents(other.cents, other.scale);
+        } else {
+            switchToBigDecimal();
+            total = total.add(other.total);
+        }
+        return this;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return total == null ? AccountColumns.toBalance(cents, scale) : total;
+    }
+
+    private void switchToBigDecimal() {
+        if (total == null) {
+            total = AccountColumns.toBalance(cents, scale);
+        }
+    }
+}